@@ -0,0 +1,18 @@
+package com.oracle.truffle.jx.bench;
+
+import org.openjdk.jmh.annotations.Param;
+
+/** Object and array literal assembly. */
+public class AssemblyBenchmark extends WarmBenchmark {
+
+  @Param({"object", "array"})
+  public String kind;
+
+  @Param({"10", "100", "1000"})
+  public int size;
+
+  @Override
+  protected String program(String namespace) {
+    return "object".equals(kind) ? Programs.object(size) : Programs.array(size);
+  }
+}
@@ -0,0 +1,78 @@
+package com.oracle.truffle.jx.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * First evaluation of a program in a fresh engine, i.e. parse plus one interpreted run, which is
+ * what a command line invocation pays. Each measurement gets a new engine and context.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 10)
+@Fork(5)
+public class ColdStartBenchmark {
+
+  @Param({"parse", "object", "array", "partial", "recursion", "views", "serialization"})
+  public String kind;
+
+  private Engine engine;
+  private Context context;
+  private Source source;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    engine = Janiva.newEngine();
+    context = Janiva.newContext(engine, false);
+    source = Janiva.source("cold", program(Janiva.uniqueNamespace("cold")));
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    context.close();
+    engine.close();
+  }
+
+  @Benchmark
+  public Value run() {
+    return "parse".equals(kind) ? context.parse(source) : context.eval(source);
+  }
+
+  private String program(String namespace) {
+    switch (kind) {
+      case "parse":
+      case "object":
+        return Programs.object(1000);
+      case "array":
+        return Programs.array(1000);
+      case "partial":
+        return Programs.partialApplication(namespace, 100);
+      case "recursion":
+        return Programs.recursion(namespace, 15);
+      case "views":
+        return Programs.rangeViews(namespace, 1000);
+      case "serialization":
+        return Programs.serialization(1000);
+      default:
+        throw new IllegalArgumentException("Unknown program: " + kind);
+    }
+  }
+}
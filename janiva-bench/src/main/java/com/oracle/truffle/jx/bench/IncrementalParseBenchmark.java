@@ -0,0 +1,79 @@
+package com.oracle.truffle.jx.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing a source again after a small edit, as an editor or watch mode does. Each invocation
+ * changes one number of the same source, either within a plain JSON literal or within an
+ * expression of the root value.
+ *
+ * <p>{@code incremental} compares {@code IncrementalParsing} to parsing the whole source again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IncrementalParseBenchmark {
+
+  @Param({"literal", "root"})
+  public String edit;
+
+  @Param({"1000", "10000"})
+  public int size;
+
+  @Param({"true", "false"})
+  public boolean incremental;
+
+  private Engine engine;
+  private Context context;
+  private String code;
+  private String edited;
+  private int invocation;
+
+  @Setup
+  public void setUp() {
+    engine = Janiva.newEngine();
+    context =
+        Context.newBuilder(Janiva.ID)
+            .engine(engine)
+            .allowExperimentalOptions(true)
+            .option("janiva.IncrementalParsing", String.valueOf(incremental))
+            .build();
+    code = Programs.object(size);
+    // the object of member 3, and the latent of member 4
+    edited = "literal".equals(edit) ? "{\"a\": 3," : "v4 << 4 ";
+    context.parse(Janiva.uncachedSource("edit", code));
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+    engine.close();
+  }
+
+  @Benchmark
+  public Value parse() {
+    int n = ++invocation;
+    String replacement = "literal".equals(edit) ? "{\"a\": " + n + "," : "v4 << " + n + " ";
+    Source source = Janiva.uncachedSource("edit", code.replace(edited, replacement));
+    return context.parse(source);
+  }
+}
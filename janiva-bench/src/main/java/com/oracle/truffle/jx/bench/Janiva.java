@@ -0,0 +1,50 @@
+package com.oracle.truffle.jx.bench;
+
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+
+/** Engine, context and source setup shared by the benchmarks. */
+final class Janiva {
+
+  static final String ID = "janiva";
+
+  private static final AtomicInteger namespaces = new AtomicInteger();
+
+  private Janiva() {}
+
+  /**
+   * Output is discarded. Truffle compilation is left at its default, i.e. enabled when running on
+   * a GraalVM JDK; elsewhere the engine warns that it runs in interpreter-only mode.
+   */
+  static Engine newEngine() {
+    return Engine.newBuilder().out(OutputStream.nullOutputStream()).build();
+  }
+
+  static Context newContext(Engine engine, boolean streamOutput) {
+    return Context.newBuilder(ID)
+        .engine(engine)
+        .allowExperimentalOptions(true)
+        .option("janiva.StreamOutput", String.valueOf(streamOutput))
+        .build();
+  }
+
+  static Source source(String name, String code) {
+    return Source.newBuilder(ID, code, name + ".janiva").buildLiteral();
+  }
+
+  /** A source the engine parses again every time instead of reusing its call target. */
+  static Source uncachedSource(String name, String code) {
+    return Source.newBuilder(ID, code, name + ".janiva").cached(false).buildLiteral();
+  }
+
+  /**
+   * Lambdas are registered per namespace for the lifetime of the JVM, so a program defining
+   * lambdas gets a fresh namespace each time it is parsed.
+   */
+  static String uniqueNamespace(String prefix) {
+    return "bench." + prefix + namespaces.incrementAndGet();
+  }
+}
@@ -0,0 +1,74 @@
+package com.oracle.truffle.jx.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing without evaluation, i.e. {@code JanivaLangParser.parseSL} and node creation. Each
+ * invocation parses a source of its own, as the language keeps what it parsed before. Programs
+ * define no lambdas, as the lambda registry rejects a second definition.
+ *
+ * <p>{@code twoStage} compares SLL-first parsing to full LL prediction throughout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+  @Param({"object", "array"})
+  public String kind;
+
+  @Param({"100", "1000", "10000"})
+  public int size;
+
+  @Param({"true", "false"})
+  public boolean twoStage;
+
+  private Engine engine;
+  private Context context;
+  private String code;
+  private int invocation;
+
+  @Setup
+  public void setUp() {
+    engine = Janiva.newEngine();
+    context =
+        Context.newBuilder(Janiva.ID)
+            .engine(engine)
+            .option("janiva.TwoStageParsing", String.valueOf(twoStage))
+            .allowExperimentalOptions(true)
+            .build();
+    code = "object".equals(kind) ? Programs.object(size) : Programs.array(size);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+    engine.close();
+  }
+
+  @Benchmark
+  public Value parse() {
+    // a comment makes the content differ, which is what the language keys parsed sources by
+    Source source = Janiva.uncachedSource("parse", "// " + invocation++ + "\n" + code);
+    return context.parse(source);
+  }
+}
@@ -0,0 +1,15 @@
+package com.oracle.truffle.jx.bench;
+
+import org.openjdk.jmh.annotations.Param;
+
+/** Feeding arguments to partially applied lambdas, one call site per application. */
+public class PartialApplicationBenchmark extends WarmBenchmark {
+
+  @Param({"10", "100"})
+  public int sites;
+
+  @Override
+  protected String program(String namespace) {
+    return Programs.partialApplication(namespace, sites);
+  }
+}
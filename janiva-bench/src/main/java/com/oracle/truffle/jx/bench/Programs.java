@@ -0,0 +1,111 @@
+package com.oracle.truffle.jx.bench;
+
+/** Generates Janiva programs whose size is set by a benchmark parameter. */
+final class Programs {
+
+  private Programs() {}
+
+  /**
+   * An object literal with {@code members} members, mixing numbers, strings, arithmetic, nested
+   * objects and arrays, and latent attributes with references to them.
+   */
+  static String object(int members) {
+    StringBuilder sb = new StringBuilder("{\n");
+    for (int i = 0; i < members; i++) {
+      switch (i % 5) {
+        case 0:
+          sb.append("  \"k").append(i).append("\": ").append(i);
+          break;
+        case 1:
+          sb.append("  \"k").append(i).append("\": \"value ").append(i).append('"');
+          break;
+        case 2:
+          sb.append("  \"k").append(i).append("\": [").append(i).append(", ").append(i + 1);
+          sb.append(", {\"x\": ").append(i).append(".5}]");
+          break;
+        case 3:
+          sb.append("  \"k").append(i).append("\": {\"a\": ").append(i);
+          sb.append(", \"b\": true, \"c\": \"c\"}");
+          break;
+        default:
+          sb.append("  v").append(i).append(" << ").append(i).append(" * 2 + 1,\n");
+          sb.append("  \"k").append(i).append("\": $v").append(i);
+          break;
+      }
+      sb.append(i + 1 < members ? ",\n" : "\n");
+    }
+    return sb.append('}').toString();
+  }
+
+  /** An array literal with {@code elements} elements of mixed kinds. */
+  static String array(int elements) {
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < elements; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      switch (i % 3) {
+        case 0:
+          sb.append(i);
+          break;
+        case 1:
+          sb.append("{\"i\": ").append(i).append('}');
+          break;
+        default:
+          sb.append("\"s").append(i).append('"');
+          break;
+      }
+    }
+    return sb.append(']').toString();
+  }
+
+  /** {@code sites} applications of a shared partially applied lambda, plus a partial chain each. */
+  static String partialApplication(String namespace, int sites) {
+    StringBuilder sb = header(namespace);
+    sb.append("@add5 :: (x1, x2, x3, x4, x5) >> $x1 + $x2 + $x3 + $x4 + $x5 #\n\n");
+    sb.append("{\n  p << @add5 << 1 << 2");
+    for (int i = 0; i < sites; i++) {
+      sb.append(",\n  q").append(i).append(" << @p << ").append(i);
+      sb.append(",\n  \"r").append(i).append("\": @q").append(i).append(" << 1 << 2");
+    }
+    return sb.append("\n}").toString();
+  }
+
+  /** Naive recursive fibonacci of {@code n}. */
+  static String recursion(String namespace, int n) {
+    StringBuilder sb = header(namespace);
+    sb.append("@fibb :: (x) >>\n");
+    sb.append("    @if << ($x < 2)\n");
+    sb.append("    << 1\n");
+    sb.append("    << @fibb << ($x - 1) + @fibb << ($x - 2) #\n\n");
+    return sb.append("{\n  \"result\": @fibb << ").append(n).append("\n}").toString();
+  }
+
+  /**
+   * Pipelines over {@code @range} views. The result is written by {@code @stdout}, so lazy views
+   * are drained as well.
+   */
+  static String rangeViews(String namespace, int n) {
+    StringBuilder sb = header(namespace);
+    sb.append("@square :: (x) >> $x * $x #\n");
+    sb.append("@big :: (x) >> $x > 100 #\n");
+    sb.append("@plus :: (acc, x) >> $acc + $x #\n\n");
+    sb.append("@stdout << {\n");
+    sb.append("  \"sum\": @reduce << (@plus) << 0 << @map << (@square) << @range << ");
+    sb.append(n).append(",\n");
+    sb.append("  \"first\": @take << 10 << @filter << (@big) << @map << (@square) << @range << ");
+    sb.append(n).append(",\n");
+    sb.append("  \"chunks\": @take << 3 << @chunk << 4 << @range << ").append(n).append(",\n");
+    sb.append("  \"all\": @map << (@square) << @range << ").append(n).append('\n');
+    return sb.append('}').toString();
+  }
+
+  /** {@code @stdout} of an object literal with {@code members} members. */
+  static String serialization(int members) {
+    return "@stdout << " + object(members);
+  }
+
+  private static StringBuilder header(String namespace) {
+    return new StringBuilder("@namespace << ").append(namespace).append(" #\n\n");
+  }
+}
@@ -0,0 +1,15 @@
+package com.oracle.truffle.jx.bench;
+
+import org.openjdk.jmh.annotations.Param;
+
+/** Higher-order lambdas and lazy views over {@code @range}. */
+public class RangeViewBenchmark extends WarmBenchmark {
+
+  @Param({"100", "10000"})
+  public int n;
+
+  @Override
+  protected String program(String namespace) {
+    return Programs.rangeViews(namespace, n);
+  }
+}
@@ -0,0 +1,15 @@
+package com.oracle.truffle.jx.bench;
+
+import org.openjdk.jmh.annotations.Param;
+
+/** Recursive lambda calls, naive fibonacci. */
+public class RecursionBenchmark extends WarmBenchmark {
+
+  @Param({"10", "20"})
+  public int n;
+
+  @Override
+  protected String program(String namespace) {
+    return Programs.recursion(namespace, n);
+  }
+}
@@ -0,0 +1,23 @@
+package com.oracle.truffle.jx.bench;
+
+import org.openjdk.jmh.annotations.Param;
+
+/** {@code @stdout} of an object literal, assembled first or streamed. Output is discarded. */
+public class SerializationBenchmark extends WarmBenchmark {
+
+  @Param({"100", "1000"})
+  public int members;
+
+  @Param({"false", "true"})
+  public boolean streamOutput;
+
+  @Override
+  protected String program(String namespace) {
+    return Programs.serialization(members);
+  }
+
+  @Override
+  protected boolean streamOutput() {
+    return streamOutput;
+  }
+}
@@ -0,0 +1,60 @@
+package com.oracle.truffle.jx.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Steady state evaluation: a program is parsed once per trial and executed repeatedly in the same
+ * context, so warm-up iterations get it compiled. See {@link ColdStartBenchmark} for first runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class WarmBenchmark {
+
+  private Engine engine;
+  private Context context;
+  private Value program;
+
+  /** @param namespace namespace to define lambdas in, if the program has any */
+  protected abstract String program(String namespace);
+
+  protected boolean streamOutput() {
+    return false;
+  }
+
+  @Setup
+  public void setUp() {
+    engine = Janiva.newEngine();
+    context = Janiva.newContext(engine, streamOutput());
+    String name = getClass().getSimpleName();
+    program = context.parse(Janiva.source(name, program(Janiva.uniqueNamespace(name))));
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+    engine.close();
+  }
+
+  @Benchmark
+  public Value execute() {
+    return program.execute();
+  }
+}
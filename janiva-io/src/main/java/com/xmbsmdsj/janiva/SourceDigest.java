@@ -0,0 +1,86 @@
+package com.xmbsmdsj.janiva;
+
+import com.oracle.truffle.api.source.Source;
+import com.xmbsmdsj.janiva.exceptions.JanivaIOException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/** Identifies sources by where they live and what they contain, e.g. for caching parsed code. */
+public class SourceDigest {
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+  private static final int CHUNK_SIZE = 8192;
+
+  /**
+   * @return hex encoded SHA-256 of the source characters
+   */
+  public static String contentHash(Source source) {
+    return sha256(source.getCharacters());
+  }
+
+  public static String sha256(CharSequence content) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+    // encoded a chunk at a time, so hashing a large source does not copy it as a whole
+    CharsetEncoder encoder =
+        StandardCharsets.UTF_8
+            .newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    CharBuffer in = CharBuffer.wrap(content);
+    ByteBuffer out = ByteBuffer.allocate(CHUNK_SIZE);
+    boolean flushing = false;
+    while (true) {
+      CoderResult result = flushing ? encoder.flush(out) : encoder.encode(in, out, true);
+      out.flip();
+      digest.update(out);
+      out.clear();
+      if (result.isUnderflow()) {
+        if (flushing) {
+          break;
+        }
+        flushing = true;
+      }
+    }
+    byte[] hash = digest.digest();
+    char[] res = new char[hash.length * 2];
+    for (int i = 0; i < hash.length; i++) {
+      res[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+      res[i * 2 + 1] = HEX[hash[i] & 0xF];
+    }
+    return new String(res);
+  }
+
+  /**
+   * @return canonical path of a file backed source, or its name if the source has no path
+   */
+  public static String canonicalPath(Source source) {
+    String path = source.getPath();
+    if (path == null) {
+      return source.getName();
+    }
+    try {
+      return new File(path).getCanonicalPath();
+    } catch (IOException e) {
+      throw new JanivaIOException("Cannot resolve path: " + path, e);
+    }
+  }
+
+  /**
+   * @return a key that changes whenever the file moves or its content changes
+   */
+  public static String sourceKey(Source source) {
+    return canonicalPath(source) + "#" + contentHash(source);
+  }
+}
@@ -0,0 +1,54 @@
+package com.oracle.truffle.jx;
+
+import com.oracle.truffle.api.Option;
+import org.graalvm.options.OptionCategory;
+import org.graalvm.options.OptionKey;
+import org.graalvm.options.OptionStability;
+
+/** Options of the Janiva language, passed as {@code --janiva.<Name>=<value>}. */
+@Option.Group(JanivaLang.ID)
+public final class JXOptions {
+
+  private JXOptions() {}
+
+  @Option(
+      help =
+          "Write a root '@stdout << {...}' to stdout while it is being evaluated, instead of"
+              + " assembling the whole document first. The root expression then evaluates to null.",
+      category = OptionCategory.USER,
+      stability = OptionStability.EXPERIMENTAL)
+  public static final OptionKey<Boolean> StreamOutput = new OptionKey<>(false);
+
+  @Option(
+      help =
+          "Size in bytes of each of the two output buffers. A full buffer is written in the"
+              + " background while evaluation fills the other one.",
+      category = OptionCategory.EXPERT,
+      stability = OptionStability.EXPERIMENTAL)
+  public static final OptionKey<Integer> OutputBufferSize = new OptionKey<>(64 * 1024);
+
+  @Option(
+      help =
+          "Directory in which the parse of each source is kept, so later runs of unchanged sources"
+              + " skip parsing. Empty to disable.",
+      category = OptionCategory.USER,
+      stability = OptionStability.EXPERIMENTAL)
+  public static final OptionKey<String> TemplateCache = new OptionKey<>("");
+
+  @Option(
+      help =
+          "Parse with SLL prediction first, and with full LL prediction only if that fails."
+              + " Off by default: arithmetic needs full LL, so most templates are parsed twice.",
+      category = OptionCategory.EXPERT,
+      stability = OptionStability.EXPERIMENTAL)
+  public static final OptionKey<Boolean> TwoStageParsing = new OptionKey<>(false);
+
+  @Option(
+      help =
+          "Keep the last version of each parsed source, so that a changed version of it, e.g. one"
+              + " being edited or watched, is only parsed again around the change. TemplateCache"
+              + " is not used then.",
+      category = OptionCategory.USER,
+      stability = OptionStability.EXPERIMENTAL)
+  public static final OptionKey<Boolean> IncrementalParsing = new OptionKey<>(false);
+}
@@ -41,6 +41,7 @@
 package com.oracle.truffle.jx;
 
 import com.oracle.truffle.api.*;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleLanguage.ContextPolicy;
 import com.oracle.truffle.api.debug.DebuggerTags;
 import com.oracle.truffle.api.dsl.NodeFactory;
@@ -52,22 +53,30 @@ import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.object.DynamicObjectLibrary;
 import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.strings.TruffleString;
 import com.oracle.truffle.jx.builtins.*;
 import com.oracle.truffle.jx.nodes.*;
 import com.oracle.truffle.jx.nodes.local.JXReadArgumentNode;
+import com.oracle.truffle.jx.parser.IncrementalParser;
 import com.oracle.truffle.jx.parser.JanivaLangParser;
+import com.oracle.truffle.jx.parser.TemplateCache;
 import com.oracle.truffle.jx.runtime.*;
 import com.oracle.truffle.jx.statics.lambda.BuiltInLambda;
 import com.oracle.truffle.jx.statics.lambda.LambdaRegistry;
 import com.oracle.truffle.jx.statics.lambda.LambdaTemplate;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import org.graalvm.options.OptionDescriptors;
+import org.graalvm.options.OptionValues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /** */
 @TruffleLanguage.Registration(
@@ -90,6 +99,8 @@ import java.util.concurrent.ConcurrentHashMap;
 })
 public final class JanivaLang extends TruffleLanguage<JXContext> {
 
+  private static final Logger logger = LoggerFactory.getLogger(JanivaLang.class);
+
   public static final String ID = "janiva";
   public static final String MIME_TYPE = "application/janiva";
 
@@ -101,6 +112,13 @@ public final class JanivaLang extends TruffleLanguage<JXContext> {
   private final Map<NodeFactory<? extends JXBuiltinNode>, RootCallTarget> builtinTargets =
       new ConcurrentHashMap<>();
   private final Map<TruffleString, RootCallTarget> undefinedFunctions = new ConcurrentHashMap<>();
+  private final ParsedSourceCache parsedSources =
+      new ParsedSourceCache(ParsedSourceCache.DEFAULT_CAPACITY);
+  /* Parsing options, taken from the first context, see areOptionsCompatible. */
+  private boolean configured;
+  private TemplateCache templateCache;
+  private boolean twoStageParsing;
+  private IncrementalParser incrementalParser;
 
   private final Shape rootShape;
   private final Shape jxArrayShape;
@@ -108,19 +126,61 @@ public final class JanivaLang extends TruffleLanguage<JXContext> {
   public JanivaLang() {
     this.rootShape = Shape.newBuilder().layout(JXObject.class).build();
     this.jxArrayShape = Shape.newBuilder().layout(JXArray.class).build();
+    installBuiltInLambdas();
+    initializeReservedKeywords();
   }
 
   @Override
   protected JXContext createContext(Env env) {
+    synchronized (this) {
+      if (!configured) {
+        String templateCacheDir = env.getOptions().get(JXOptions.TemplateCache);
+        if (!templateCacheDir.isEmpty()) {
+          templateCache = new TemplateCache(Paths.get(templateCacheDir));
+        }
+        twoStageParsing = env.getOptions().get(JXOptions.TwoStageParsing);
+        if (env.getOptions().get(JXOptions.IncrementalParsing)) {
+          incrementalParser = new IncrementalParser(IncrementalParser.DEFAULT_CAPACITY);
+        }
+        configured = true;
+      }
+    }
     return new JXContext(this, env, new ArrayList<>(EXTERNAL_BUILTINS));
   }
 
+  /**
+   * Parsing options are read once per language instance, so contexts that set them differently
+   * get an instance of their own.
+   */
+  @Override
+  protected boolean areOptionsCompatible(OptionValues firstOptions, OptionValues newOptions) {
+    return firstOptions
+            .get(JXOptions.TwoStageParsing)
+            .equals(newOptions.get(JXOptions.TwoStageParsing))
+        && firstOptions
+            .get(JXOptions.TemplateCache)
+            .equals(newOptions.get(JXOptions.TemplateCache))
+        && firstOptions
+            .get(JXOptions.IncrementalParsing)
+            .equals(newOptions.get(JXOptions.IncrementalParsing));
+  }
+
+  @Override
+  protected OptionDescriptors getOptionDescriptors() {
+    return new JXOptionsOptionDescriptors();
+  }
+
   @Override
   protected boolean patchContext(JXContext context, Env newEnv) {
     context.patchContext(newEnv);
     return true;
   }
 
+  /** @see JXOptions#TwoStageParsing */
+  public synchronized boolean isTwoStageParsing() {
+    return twoStageParsing;
+  }
+
   public RootCallTarget getOrCreateUndefinedFunction(TruffleString name) {
     RootCallTarget target = undefinedFunctions.get(name);
     if (target == null) {
@@ -190,21 +250,47 @@ public final class JanivaLang extends TruffleLanguage<JXContext> {
     }
   }
 
+  /**
+   * Returns the parsed form of a source, parsing it only the first time it is needed with this
+   * alias, see {@link ParsedSourceCache}. Imports are resolved through here too, so diamond-shaped
+   * import graphs parse shared libraries once, while an edited file is parsed again. With {@link
+   * JXOptions#TemplateCache} set, a source parsed by an earlier process is rebuilt from its entry
+   * in the {@link TemplateCache} instead. With {@link JXOptions#IncrementalParsing} set, a changed
+   * version of a source parsed before is only parsed again around the change, see {@link
+   * IncrementalParser}.
+   *
+   * @param nsAlias alias the source is imported as, {@code null} for a source evaluated as is
+   */
+  public synchronized JXModule lookupModule(Source source, TruffleString nsAlias) {
+    String key = ParsedSourceCache.keyOf(source, nsAlias);
+    JXModule module = parsedSources.get(key);
+    if (module == null) {
+      // not computeIfAbsent: parsing resolves the module's own imports recursively
+      logger.debug("Parsing {} as {}", source.getName(), nsAlias);
+      RootNode root;
+      if (incrementalParser != null) {
+        root = incrementalParser.parse(this, source, nsAlias);
+      } else if (templateCache != null) {
+        root = templateCache.parse(this, source, nsAlias);
+      } else {
+        root = JanivaLangParser.parseSL(this, source, nsAlias);
+      }
+      module = new JXModule(key, root.getCallTarget());
+      parsedSources.put(key, module);
+    }
+    return module;
+  }
+
   @Override
   public CallTarget parse(ParsingRequest request) throws Exception {
     Source source = request.getSource();
-    RootNode rootNode;
-
-    this.installBuiltInLambdas();
-    this.initializeReservedKeywords();
 
     /*
-     * Parse the provided source. At this point, we do not have a SLContext yet. Registration of
-     * the functions with the SLContext happens lazily in SLEvalRootNode.
+     * Parse the provided source, unless it was parsed before. At this point, we do not have a
+     * SLContext yet. Registration of the functions with the SLContext happens lazily in
+     * SLEvalRootNode.
      */
-    rootNode = JanivaLangParser.parseSL(this, source, null);
-
-    RootCallTarget main = rootNode.getCallTarget();
+    RootCallTarget main = lookupModule(source, null).getCallTarget();
     RootNode evalMain;
     if (main != null) {
       /*
@@ -280,6 +366,23 @@ public final class JanivaLang extends TruffleLanguage<JXContext> {
     return object;
   }
 
+  /**
+   * Builds an object literal evaluated at parse time. The object is {@link JXObject#FROZEN frozen}
+   * and marked shared, as it is referenced from the AST and thus reachable from every context.
+   * Shapes belong to the language, so frozen objects with the same keys share one shape.
+   */
+  @TruffleBoundary
+  public JXObject createFrozenObject(TruffleString[] keys, Object[] values) {
+    DynamicObjectLibrary objectLibrary = DynamicObjectLibrary.getUncached();
+    JXObject object = new JXObject(rootShape);
+    for (int i = 0; i < keys.length; i++) {
+      objectLibrary.put(object, keys[i], values[i]);
+    }
+    objectLibrary.setShapeFlags(object, JXObject.FROZEN);
+    objectLibrary.markShared(object);
+    return object;
+  }
+
   public JXArray createJXArray(AllocationReporter reporter, int size) {
     reporter.onEnter(null, 0, AllocationReporter.SIZE_UNKNOWN);
     JXArray array = new JXArray(jxArrayShape, new Object[size]);
@@ -287,6 +390,13 @@ public final class JanivaLang extends TruffleLanguage<JXContext> {
     return array;
   }
 
+  public JXArray createJXArray(AllocationReporter reporter, Object[] content) {
+    reporter.onEnter(null, 0, AllocationReporter.SIZE_UNKNOWN);
+    JXArray array = new JXArray(jxArrayShape, content);
+    reporter.onReturnValue(array, 0, AllocationReporter.SIZE_UNKNOWN);
+    return array;
+  }
+
   private static final LanguageReference<JanivaLang> REFERENCE =
       LanguageReference.create(JanivaLang.class);
 
@@ -310,6 +420,12 @@ public final class JanivaLang extends TruffleLanguage<JXContext> {
     context.runShutdownHooks();
   }
 
+  @Override
+  protected void finalizeContext(JXContext context) {
+    context.closeOutput();
+  }
+
+  /** Built-in lambdas and keywords are static, they are registered once per engine. */
   private void installBuiltInLambdas() {
     for (BuiltInLambda builtIn : BuiltInLambda.values()) {
       LambdaTemplate lt = new LambdaTemplate(builtIn.lambdaName());
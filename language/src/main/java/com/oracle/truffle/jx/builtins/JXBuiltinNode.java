@@ -81,6 +81,11 @@ public abstract class JXBuiltinNode extends JXExpressionNode {
     return super.executeLong(frame);
   }
 
+  @Override
+  public final double executeDouble(VirtualFrame frame) throws UnexpectedResultException {
+    return super.executeDouble(frame);
+  }
+
   @Override
   public final void executeVoid(VirtualFrame frame) {
     super.executeVoid(frame);
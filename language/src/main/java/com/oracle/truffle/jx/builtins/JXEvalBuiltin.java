@@ -56,7 +56,8 @@ import com.oracle.truffle.jx.runtime.JXContext;
  *
  * <p>The call target is cached against the language id and the source code, so that if they are the
  * same each time then a direct call will be made to a cached AST, allowing it to be compiled and
- * possibly inlined.
+ * possibly inlined. Janiva sources are parsed through {@link JanivaLang#lookupModule}, so snippets
+ * evaluated by uncached call sites are not parsed again either.
  */
 @NodeInfo(shortName = "eval")
 @SuppressWarnings("unused")
@@ -52,6 +52,11 @@ import org.antlr.v4.runtime.Token;
 @NodeChild("leftNode")
 @NodeChild("rightNode")
 public abstract class JXBinaryNode extends JXExpressionNode {
+
+  public abstract JXExpressionNode getLeftNode();
+
+  public abstract JXExpressionNode getRightNode();
+
   public static JXExpressionNode create(
       Token op, JXExpressionNode leftUnboxed, JXExpressionNode rightUnboxed) {
     JXExpressionNode result;
@@ -104,6 +104,10 @@ public abstract class JXExpressionNode extends JXStatementNode {
     return JanivaTypesGen.expectLong(executeGeneric(frame));
   }
 
+  public double executeDouble(VirtualFrame frame) throws UnexpectedResultException {
+    return JanivaTypesGen.expectDouble(executeGeneric(frame));
+  }
+
   public boolean executeBoolean(VirtualFrame frame) throws UnexpectedResultException {
     return JanivaTypesGen.expectBoolean(executeGeneric(frame));
   }
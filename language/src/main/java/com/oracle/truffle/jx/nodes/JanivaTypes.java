@@ -48,7 +48,6 @@ import com.oracle.truffle.api.dsl.TypeSystem;
 import com.oracle.truffle.jx.JanivaLang;
 import com.oracle.truffle.jx.runtime.JSNull;
 import com.oracle.truffle.jx.runtime.JXBigNumber;
-import java.math.BigDecimal;
 
 /**
  * The type system of SL, as explained in {@link JanivaLang}. Based on the {@link TypeSystem}
@@ -56,7 +55,7 @@ import java.math.BigDecimal;
  * conversion methods for some types. In this class, we only cover types where the automatically
  * generated ones would not be sufficient.
  */
-@TypeSystem({long.class, boolean.class})
+@TypeSystem({long.class, double.class, boolean.class})
 public abstract class JanivaTypes {
 
   /**
@@ -90,6 +89,17 @@ public abstract class JanivaTypes {
   @ImplicitCast
   @TruffleBoundary
   public static JXBigNumber castBigNumber(long value) {
-    return new JXBigNumber(BigDecimal.valueOf(value));
+    return JXBigNumber.valueOf(value);
+  }
+
+  /**
+   * Same as {@link #castBigNumber(long)}, for {@code double} values. Janiva only produces a {@code
+   * double} when it represents the decimal value exactly, so widening to {@link JXBigNumber} never
+   * loses precision.
+   */
+  @ImplicitCast
+  @TruffleBoundary
+  public static JXBigNumber castBigNumber(double value) {
+    return JXBigNumber.valueOf(value);
   }
 }
@@ -41,6 +41,7 @@
 package com.oracle.truffle.jx.nodes;
 
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.DirectCallNode;
@@ -112,7 +113,17 @@ public final class SLEvalRootNode extends RootNode {
       for (int i = 0; i < arguments.length; i++) {
         arguments[i] = JXContext.fromForeignValue(arguments[i]);
       }
-      return mainCallNode.call(arguments);
+      try {
+        return mainCallNode.call(arguments);
+      } finally {
+        flushOutput();
+      }
     }
   }
+
+  /** The embedder sees what an evaluation wrote once it returns, see {@link JXContext#flushOutput}. */
+  @TruffleBoundary
+  private void flushOutput() {
+    JXContext.get(this).flushOutput();
+  }
 }
@@ -0,0 +1,26 @@
+package com.oracle.truffle.jx.nodes.controlflow;
+
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.jx.JXException;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.runtime.view.JXChunkedArrayView;
+
+/** {@code @chunk << n << array}: consecutive slices of {@code n} elements, without copying. */
+@NodeChild("size")
+@NodeChild("array")
+public abstract class JXChunkNode extends JXExpressionNode {
+
+  @Specialization(guards = {"size > 0", "arrays.hasArrayElements(array)"}, limit = "3")
+  public Object doChunk(long size, Object array, @CachedLibrary("array") InteropLibrary arrays) {
+    return new JXChunkedArrayView(array, size);
+  }
+
+  @Fallback
+  public Object doUnsupported(Object size, Object array) {
+    throw new JXException("Expecting a positive chunk size and an array, getting: " + size, this);
+  }
+}
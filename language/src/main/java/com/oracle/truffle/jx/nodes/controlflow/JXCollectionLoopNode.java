@@ -0,0 +1,177 @@
+package com.oracle.truffle.jx.nodes.controlflow;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.nodes.LoopNode;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RepeatingNode;
+import com.oracle.truffle.jx.JXException;
+import com.oracle.truffle.jx.JanivaLang;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.nodes.expression.JXLambdaCallNode;
+import com.oracle.truffle.jx.runtime.JXArray;
+import com.oracle.truffle.jx.runtime.JXContext;
+import com.oracle.truffle.jx.runtime.JXPartialLambda;
+import com.oracle.truffle.jx.runtime.view.AbstractArrayView;
+import java.util.Arrays;
+
+/**
+ * Base of the higher-order built-ins ({@code @map}, {@code @filter}, ...) that call a lambda once
+ * per element of an array or array view. Iteration runs in a Truffle {@link LoopNode}, so long
+ * loops get on-stack replaced, and the lambda is called through a {@link JXLambdaCallNode}, so the
+ * per-element call is direct and can be inlined.
+ *
+ * <p>The state of a running loop lives in an auxiliary slot of the enclosing frame. Built-ins that
+ * preserve laziness return a view instead when given an array view, see {@link #createView}.
+ */
+public abstract class JXCollectionLoopNode extends JXExpressionNode {
+
+  static final int LIBRARY_LIMIT = 3;
+
+  /** Mutable state of one loop execution. */
+  protected static final class LoopState {
+    final Object lambda;
+    final Object collection;
+    final int size;
+    int index;
+    Object accumulator;
+    Object[] out;
+    int outSize;
+
+    LoopState(Object lambda, Object collection, int size) {
+      this.lambda = lambda;
+      this.collection = collection;
+      this.size = size;
+    }
+
+    void append(Object value) {
+      if (outSize == out.length) {
+        out = grow(out);
+      }
+      out[outSize++] = value;
+    }
+
+    @TruffleBoundary
+    private static Object[] grow(Object[] out) {
+      return Arrays.copyOf(out, Math.max(8, out.length << 1));
+    }
+  }
+
+  @Child private JXExpressionNode lambdaNode;
+  @Child private JXExpressionNode collectionNode;
+  @Child private LoopNode loop;
+  @Child private JXLambdaCallNode callNode = JXLambdaCallNode.create();
+  @Child private InteropLibrary arrays =
+      InteropLibrary.getFactory().createDispatched(LIBRARY_LIMIT);
+
+  @CompilationFinal private int stateSlot = -1;
+
+  protected JXCollectionLoopNode(JXExpressionNode lambdaNode, JXExpressionNode collectionNode) {
+    this.lambdaNode = lambdaNode;
+    this.collectionNode = collectionNode;
+    this.loop = Truffle.getRuntime().createLoopNode(new ElementNode());
+  }
+
+  /** Evaluates the initial accumulator, for built-ins that take one before the collection. */
+  protected Object executeAccumulator(VirtualFrame frame) {
+    return null;
+  }
+
+  /**
+   * @return a lazy view over {@code source} instead of looping over it, or {@code null} to loop
+   */
+  protected Object createView(Object lambda, AbstractArrayView source) {
+    return null;
+  }
+
+  protected void start(LoopState state) {}
+
+  protected abstract void step(LoopState state, Object element);
+
+  protected abstract Object finish(LoopState state);
+
+  @Override
+  public Object executeGeneric(VirtualFrame frame) {
+    Object lambda = lambdaNode.executeGeneric(frame);
+    Object accumulator = executeAccumulator(frame);
+    Object collection = collectionNode.executeGeneric(frame);
+    if (collection instanceof AbstractArrayView) {
+      Object view = createView(lambda, (AbstractArrayView) collection);
+      if (view != null) {
+        return view;
+      }
+    }
+    LoopState state = new LoopState(lambda, collection, arraySize(collection));
+    state.accumulator = accumulator;
+    start(state);
+    int slot = getStateSlot();
+    frame.setAuxiliarySlot(slot, state);
+    try {
+      loop.execute(frame);
+    } finally {
+      frame.setAuxiliarySlot(slot, null);
+    }
+    return finish(state);
+  }
+
+  protected final int arraySize(Object array) {
+    if (!arrays.hasArrayElements(array)) {
+      throw new JXException("Expecting an array, getting: " + array, this);
+    }
+    try {
+      return (int) arrays.getArraySize(array);
+    } catch (InteropException e) {
+      throw new JXException("Cannot get array size: " + e.getMessage(), this);
+    }
+  }
+
+  protected final JXPartialLambda asLambda(Object lambda) {
+    if (!(lambda instanceof JXPartialLambda)) {
+      throw new JXException("Expecting a lambda, getting: " + lambda, this);
+    }
+    return (JXPartialLambda) lambda;
+  }
+
+  protected final Object call(LoopState state, Object... args) {
+    return callNode.execute(state.lambda, args);
+  }
+
+  protected final Object readElement(Object array, long index) {
+    try {
+      return arrays.readArrayElement(array, index);
+    } catch (InteropException e) {
+      throw new JXException("Cannot read array element: " + e.getMessage(), this);
+    }
+  }
+
+  protected final JXArray newArray(Object[] content) {
+    return JanivaLang.get(this).createJXArray(JXContext.get(this).getAllocationReporter(), content);
+  }
+
+  private int getStateSlot() {
+    if (stateSlot < 0) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      stateSlot = getRootNode().getFrameDescriptor().findOrAddAuxiliarySlot(this);
+    }
+    return stateSlot;
+  }
+
+  private final class ElementNode extends Node implements RepeatingNode {
+
+    @Override
+    public boolean executeRepeating(VirtualFrame frame) {
+      LoopState state = (LoopState) frame.getAuxiliarySlot(stateSlot);
+      if (state.index >= state.size) {
+        return false;
+      }
+      step(state, readElement(state.collection, state.index));
+      state.index++;
+      return true;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.oracle.truffle.jx.nodes.controlflow;
+
+import com.oracle.truffle.jx.JXException;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.runtime.view.AbstractArrayView;
+import com.oracle.truffle.jx.runtime.view.JXFilteredArrayView;
+import java.util.Arrays;
+
+/**
+ * {@code @filter << predicate << array}: keeps the elements the predicate returns true for. Over an
+ * array view the result is a lazy {@link JXFilteredArrayView}.
+ */
+public final class JXFilterNode extends JXCollectionLoopNode {
+
+  public JXFilterNode(JXExpressionNode lambdaNode, JXExpressionNode collectionNode) {
+    super(lambdaNode, collectionNode);
+  }
+
+  @Override
+  protected Object createView(Object lambda, AbstractArrayView source) {
+    return new JXFilteredArrayView(source, asLambda(lambda));
+  }
+
+  @Override
+  protected void start(LoopState state) {
+    state.out = new Object[state.size];
+  }
+
+  @Override
+  protected void step(LoopState state, Object element) {
+    Object keep = call(state, element);
+    if (!(keep instanceof Boolean)) {
+      throw new JXException("Filter predicate must return a boolean, getting: " + keep, this);
+    }
+    if ((boolean) keep) {
+      state.out[state.outSize++] = element;
+    }
+  }
+
+  @Override
+  protected Object finish(LoopState state) {
+    if (state.outSize == state.size) {
+      return newArray(state.out);
+    }
+    return newArray(Arrays.copyOf(state.out, state.outSize));
+  }
+}
@@ -0,0 +1,34 @@
+package com.oracle.truffle.jx.nodes.controlflow;
+
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import java.util.Arrays;
+
+/**
+ * {@code @flatMap << fn << array}: applies {@code fn}, which returns an array, to every element and
+ * concatenates the results.
+ */
+public final class JXFlatMapNode extends JXCollectionLoopNode {
+
+  public JXFlatMapNode(JXExpressionNode lambdaNode, JXExpressionNode collectionNode) {
+    super(lambdaNode, collectionNode);
+  }
+
+  @Override
+  protected void start(LoopState state) {
+    state.out = new Object[state.size];
+  }
+
+  @Override
+  protected void step(LoopState state, Object element) {
+    Object mapped = call(state, element);
+    int size = arraySize(mapped);
+    for (int i = 0; i < size; i++) {
+      state.append(readElement(mapped, i));
+    }
+  }
+
+  @Override
+  protected Object finish(LoopState state) {
+    return newArray(Arrays.copyOf(state.out, state.outSize));
+  }
+}
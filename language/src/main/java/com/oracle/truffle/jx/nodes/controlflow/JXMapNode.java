@@ -0,0 +1,36 @@
+package com.oracle.truffle.jx.nodes.controlflow;
+
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.runtime.view.AbstractArrayView;
+import com.oracle.truffle.jx.runtime.view.JXMappedArrayView;
+
+/**
+ * {@code @map << fn << array}: applies {@code fn} to every element. Over an array view the result
+ * is a lazy {@link JXMappedArrayView}.
+ */
+public final class JXMapNode extends JXCollectionLoopNode {
+
+  public JXMapNode(JXExpressionNode lambdaNode, JXExpressionNode collectionNode) {
+    super(lambdaNode, collectionNode);
+  }
+
+  @Override
+  protected Object createView(Object lambda, AbstractArrayView source) {
+    return new JXMappedArrayView(source, asLambda(lambda));
+  }
+
+  @Override
+  protected void start(LoopState state) {
+    state.out = new Object[state.size];
+  }
+
+  @Override
+  protected void step(LoopState state, Object element) {
+    state.out[state.index] = call(state, element);
+  }
+
+  @Override
+  protected Object finish(LoopState state) {
+    return newArray(state.out);
+  }
+}
@@ -10,6 +10,7 @@ import com.oracle.truffle.jx.nodes.JXExpressionNode;
 import com.oracle.truffle.jx.runtime.JXArray;
 import com.oracle.truffle.jx.runtime.JXBigNumber;
 import com.oracle.truffle.jx.runtime.JXContext;
+import com.oracle.truffle.jx.runtime.view.AbstractArrayView;
 import com.oracle.truffle.jx.runtime.view.JXIntegerRangeArrayView;
 import com.oracle.truffle.jx.runtime.view.JXStringArrayView;
 
@@ -22,9 +23,19 @@ public abstract class JXRangeNode extends JXExpressionNode {
     return o;
   }
 
+  @Specialization
+  public Object doView(AbstractArrayView o) {
+    return o;
+  }
+
+  @Specialization
+  public Object doLong(long o, @Cached("lookup()") AllocationReporter reporter) {
+    return new JXIntegerRangeArrayView((int) o);
+  }
+
   @CompilerDirectives.TruffleBoundary
   @Specialization(guards = "isNumber(o)")
-  public Object doLong(JXBigNumber o, @Cached("lookup()") AllocationReporter reporter) {
+  public Object doBigNumber(JXBigNumber o, @Cached("lookup()") AllocationReporter reporter) {
     return new JXIntegerRangeArrayView(o.intValue());
   }
 
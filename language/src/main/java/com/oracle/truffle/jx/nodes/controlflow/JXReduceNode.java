@@ -0,0 +1,34 @@
+package com.oracle.truffle.jx.nodes.controlflow;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+
+/**
+ * {@code @reduce << fn << initial << array}: folds the elements from left to right, calling {@code
+ * fn} with the accumulated value and the next element.
+ */
+public final class JXReduceNode extends JXCollectionLoopNode {
+
+  @Child private JXExpressionNode initialNode;
+
+  public JXReduceNode(
+      JXExpressionNode lambdaNode, JXExpressionNode initialNode, JXExpressionNode collectionNode) {
+    super(lambdaNode, collectionNode);
+    this.initialNode = initialNode;
+  }
+
+  @Override
+  protected Object executeAccumulator(VirtualFrame frame) {
+    return initialNode.executeGeneric(frame);
+  }
+
+  @Override
+  protected void step(LoopState state, Object element) {
+    state.accumulator = call(state, state.accumulator, element);
+  }
+
+  @Override
+  protected Object finish(LoopState state) {
+    return state.accumulator;
+  }
+}
@@ -0,0 +1,28 @@
+package com.oracle.truffle.jx.nodes.controlflow;
+
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.jx.JXException;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.runtime.view.JXSlicedArrayView;
+
+/** {@code @slice << from << to << array} and {@code @take << n << array}, without copying. */
+@NodeChild("from")
+@NodeChild("to")
+@NodeChild("array")
+public abstract class JXSliceNode extends JXExpressionNode {
+
+  @Specialization(guards = "arrays.hasArrayElements(array)", limit = "3")
+  public Object doSlice(
+      long from, long to, Object array, @CachedLibrary("array") InteropLibrary arrays) {
+    return JXSlicedArrayView.of(array, from, to);
+  }
+
+  @Fallback
+  public Object doUnsupported(Object from, Object to, Object array) {
+    throw new JXException("Expecting integer bounds and an array, getting: " + array, this);
+  }
+}
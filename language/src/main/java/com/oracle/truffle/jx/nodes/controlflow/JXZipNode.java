@@ -0,0 +1,32 @@
+package com.oracle.truffle.jx.nodes.controlflow;
+
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.jx.JXException;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.runtime.view.JXZippedArrayView;
+
+/** {@code @zip << left << right}: pairs of elements at the same index, without copying. */
+@NodeChild("left")
+@NodeChild("right")
+public abstract class JXZipNode extends JXExpressionNode {
+
+  @Specialization(
+      guards = {"lefts.hasArrayElements(left)", "rights.hasArrayElements(right)"},
+      limit = "3")
+  public Object doZip(
+      Object left,
+      Object right,
+      @CachedLibrary("left") InteropLibrary lefts,
+      @CachedLibrary("right") InteropLibrary rights) {
+    return new JXZippedArrayView(left, right);
+  }
+
+  @Fallback
+  public Object doUnsupported(Object left, Object right) {
+    throw new JXException("Expecting two arrays, getting: " + left + ", " + right, this);
+  }
+}
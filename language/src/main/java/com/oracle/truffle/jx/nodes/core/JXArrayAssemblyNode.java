@@ -1,27 +1,59 @@
 package com.oracle.truffle.jx.nodes.core;
 
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.nodes.util.JXJsonWriteNode;
 import com.oracle.truffle.jx.runtime.JXArray;
+import com.oracle.truffle.jx.runtime.io.JXJsonBuffer;
 import java.util.List;
 
-public class JXArrayAssemblyNode extends JXExpressionNode {
+public class JXArrayAssemblyNode extends JXExpressionNode implements JXStreamableNode {
 
-  private final List<JXExpressionNode> children;
-  private final JXArrayAllocationNode arrayAllocationNode;
+  @Children private final JXExpressionNode[] children;
+  @Child private JXArrayAllocationNode arrayAllocationNode;
+  @Child private JXJsonWriteNode elementWriter;
 
   public JXArrayAssemblyNode(
       List<JXExpressionNode> children, JXArrayAllocationNode arrayAllocationNode) {
-    this.children = children;
+    this.children = children.toArray(new JXExpressionNode[0]);
     this.arrayAllocationNode = arrayAllocationNode;
   }
 
+  @ExplodeLoop
   @Override
   public Object executeGeneric(VirtualFrame frame) {
     JXArray array = (JXArray) arrayAllocationNode.executeGeneric(frame);
-    for (int i = 0; i < children.size(); i++) {
-      array.writeArrayElement(i, children.get(i).executeGeneric(frame));
+    for (int i = 0; i < children.length; i++) {
+      array.writeArrayElement(i, children[i].executeGeneric(frame));
     }
     return array;
   }
+
+  /** Writes each element as soon as it is evaluated; nested literals are streamed in turn. */
+  @ExplodeLoop
+  @Override
+  public void executeStreaming(VirtualFrame frame, JXJsonBuffer out) {
+    out.write(JXJsonBuffer.ARRAY_OPEN);
+    for (int i = 0; i < children.length; i++) {
+      if (i > 0) {
+        out.write(JXJsonBuffer.ELEMENT_SEP);
+      }
+      if (children[i] instanceof JXStreamableNode) {
+        ((JXStreamableNode) children[i]).executeStreaming(frame, out);
+      } else {
+        getElementWriter().execute(out, children[i].executeGeneric(frame));
+      }
+    }
+    out.write(JXJsonBuffer.ARRAY_CLOSE);
+  }
+
+  private JXJsonWriteNode getElementWriter() {
+    if (elementWriter == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      elementWriter = insert(JXJsonWriteNode.create());
+    }
+    return elementWriter;
+  }
 }
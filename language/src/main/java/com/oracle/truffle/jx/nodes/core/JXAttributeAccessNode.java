@@ -48,7 +48,7 @@ public abstract class JXAttributeAccessNode extends JXExpressionNode {
    * Access an element in array
    *
    * @param val JXArray value
-   * @param attr JXBigNumber with int value
+   * @param attr long or JXBigNumber with int value
    * @return
    */
   @Specialization(guards = "arrayElem(val, attr)", limit = "3")
@@ -69,6 +69,7 @@ public abstract class JXAttributeAccessNode extends JXExpressionNode {
   }
 
   boolean arrayElem(Object o, Object attr) {
-    return (o instanceof JXArray || o instanceof AbstractArrayView) && attr instanceof JXBigNumber;
+    return (o instanceof JXArray || o instanceof AbstractArrayView)
+        && (attr instanceof Long || attr instanceof JXBigNumber);
   }
 }
@@ -3,30 +3,66 @@ package com.oracle.truffle.jx.nodes.core;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeField;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.FrameSlotKind;
 import com.oracle.truffle.api.frame.VirtualFrame;
-import com.oracle.truffle.jx.JXException;
 import com.oracle.truffle.jx.nodes.JXExpressionNode;
-import com.oracle.truffle.jx.nodes.JXStatementNode;
 
+/**
+ * Binds an attribute to its frame slot. The slot starts with the kind inferred at parse time (see
+ * {@link com.oracle.truffle.jx.parser.MetaStack#inferSlotKind}), and primitive values are stored
+ * unboxed for as long as the slot only sees values of that kind, like {@link
+ * com.oracle.truffle.jx.nodes.local.JXWriteLocalVariableNode}.
+ *
+ * <p>Non-latent attributes are bound once per scope, which the parser already guarantees by
+ * rejecting duplicate keys, so there is no check for re-binding here.
+ */
 @NodeChild(value = "val")
 @NodeField(name = "slot", type = int.class)
 @NodeField(name = "latent", type = boolean.class)
 public abstract class JXAttributeBindingNode extends JXExpressionNode {
 
-  abstract int getSlot();
-  abstract boolean isLatent();
-
-  @Specialization
-  public Object executeVal(VirtualFrame frame, Object val) {
-    if (!isLatent()) {
-      if (frame.getObject(getSlot()) != null) {
-        throw new JXException("Cannot re-bind a non-latent variable: " + getSlot(), this);
-      }
-      frame.setObject(getSlot(), val);
-    } else {
-      // Latent variable can be bound multiple times
-      frame.setObject(getSlot(), val);
-    }
+  static final FrameSlotKind LONG = FrameSlotKind.Long;
+  static final FrameSlotKind DOUBLE = FrameSlotKind.Double;
+  static final FrameSlotKind BOOLEAN = FrameSlotKind.Boolean;
+
+  public abstract int getSlot();
+
+  public abstract boolean isLatent();
+
+  public abstract JXExpressionNode getVal();
+
+  @Specialization(guards = "isKindOrIllegal(frame, LONG)")
+  protected long writeLong(VirtualFrame frame, long val) {
+    frame.getFrameDescriptor().setSlotKind(getSlot(), FrameSlotKind.Long);
+    frame.setLong(getSlot(), val);
     return val;
   }
+
+  @Specialization(guards = "isKindOrIllegal(frame, DOUBLE)")
+  protected double writeDouble(VirtualFrame frame, double val) {
+    frame.getFrameDescriptor().setSlotKind(getSlot(), FrameSlotKind.Double);
+    frame.setDouble(getSlot(), val);
+    return val;
+  }
+
+  @Specialization(guards = "isKindOrIllegal(frame, BOOLEAN)")
+  protected boolean writeBoolean(VirtualFrame frame, boolean val) {
+    frame.getFrameDescriptor().setSlotKind(getSlot(), FrameSlotKind.Boolean);
+    frame.setBoolean(getSlot(), val);
+    return val;
+  }
+
+  /** Once a slot sees a value of another kind, it stays boxed for good. */
+  @Specialization(replaces = {"writeLong", "writeDouble", "writeBoolean"})
+  protected Object write(VirtualFrame frame, Object val) {
+    frame.getFrameDescriptor().setSlotKind(getSlot(), FrameSlotKind.Object);
+    frame.setObject(getSlot(), val);
+    return val;
+  }
+
+  /** Takes the frame so that the DSL re-checks the guard, the slot kind may change. */
+  protected boolean isKindOrIllegal(VirtualFrame frame, FrameSlotKind expected) {
+    FrameSlotKind kind = frame.getFrameDescriptor().getSlotKind(getSlot());
+    return kind == expected || kind == FrameSlotKind.Illegal;
+  }
 }
@@ -4,20 +4,36 @@ import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.strings.TruffleString;
 import com.oracle.truffle.jx.nodes.JXExpressionNode;
 
 public class JXLambdaExecutor extends RootNode {
-  private JXExpressionNode evalNode;
+  @Child private JXExpressionNode evalNode;
 
-  protected JXLambdaExecutor(
-      TruffleLanguage<?> language, FrameDescriptor frameDescriptor, JXExpressionNode evalNode) {
+  private final TruffleString name;
+
+  public JXLambdaExecutor(
+      TruffleLanguage<?> language,
+      FrameDescriptor frameDescriptor,
+      JXExpressionNode evalNode,
+      TruffleString name) {
     super(language, frameDescriptor);
     this.evalNode = evalNode;
-    this.insert(evalNode);
+    this.name = name;
   }
 
   @Override
   public Object execute(VirtualFrame frame) {
     return evalNode.executeGeneric(frame);
   }
+
+  @Override
+  public String getName() {
+    return name.toJavaStringUncached();
+  }
+
+  @Override
+  public String toString() {
+    return "lambda " + getName();
+  }
 }
@@ -1,21 +1,37 @@
 package com.oracle.truffle.jx.nodes.core;
 
-import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeField;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.frame.VirtualFrame;
-import com.oracle.truffle.jx.JanivaLang;import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.JanivaLang;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
 import com.oracle.truffle.jx.runtime.JXPartialLambda;
 import com.oracle.truffle.jx.statics.lambda.LambdaTemplate;
 
+/**
+ * Materializes a lambda template into a fresh partial lambda. The call target is owned by the
+ * template, so every reference to the same lambda shares one root node and its compiled code.
+ */
 @NodeField(name = "lambdaTemplate", type = LambdaTemplate.class)
 public abstract class JXLambdaNode extends JXExpressionNode {
 
-  protected abstract LambdaTemplate getLambdaTemplate();
+  public abstract LambdaTemplate getLambdaTemplate();
 
-  @Specialization
-  public Object executeSpecialized(VirtualFrame frame) {
-    JXLambdaExecutor executor = new JXLambdaExecutor(JanivaLang.get(this), getLambdaTemplate().getFrameDescriptor(), getLambdaTemplate().getBody());
-    return new JXPartialLambda(executor.getCallTarget(), getLambdaTemplate());
+  @Specialization(assumptions = "callTargetStable")
+  public Object doCached(
+      @Cached("getLambdaTemplate().getCallTargetStable()") Assumption callTargetStable,
+      @Cached("lookupCallTarget()") RootCallTarget callTarget) {
+    return new JXPartialLambda(callTarget, getLambdaTemplate());
+  }
+
+  @Specialization(replaces = "doCached")
+  public Object doUncached() {
+    return new JXPartialLambda(lookupCallTarget(), getLambdaTemplate());
+  }
+
+  final RootCallTarget lookupCallTarget() {
+    return getLambdaTemplate().getCallTarget(JanivaLang.get(this));
   }
 }
@@ -1,33 +1,37 @@
 package com.oracle.truffle.jx.nodes.core;
 
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.profiles.ValueProfile;
 import com.oracle.truffle.api.strings.TruffleString;
-import com.oracle.truffle.jx.JXException;
 import com.oracle.truffle.jx.nodes.JXExpressionNode;
-import com.oracle.truffle.jx.statics.lambda.LambdaTemplate;
 
-public class JXLambdaSlotAccessNode extends JXExpressionNode {
+/**
+ * Reads a lambda parameter. The parameter name is resolved to its argument index while the lambda
+ * body is parsed, so a read is a constant index into the arguments. The class of the argument is
+ * profiled, which lets typed executions like {@link #executeLong} skip the type check once a
+ * parameter has only ever held one kind of value.
+ */
+public final class JXLambdaSlotAccessNode extends JXExpressionNode {
 
   private final TruffleString name;
-  private LambdaTemplate lambdaTemplate;
+  private final int index;
+  private final ValueProfile argumentClass = ValueProfile.createClassProfile();
 
-  public JXLambdaSlotAccessNode(TruffleString name, LambdaTemplate lambdaTemplate) {
+  public JXLambdaSlotAccessNode(TruffleString name, int index) {
     this.name = name;
-    this.lambdaTemplate = lambdaTemplate;
+    this.index = index;
+  }
+
+  public TruffleString getName() {
+    return name;
+  }
+
+  public int getIndex() {
+    return index;
   }
 
   @Override
   public Object executeGeneric(VirtualFrame frame) {
-    int slot = -1;
-    for (int i = 0; i < lambdaTemplate.parameterCount(); i++) {
-      if (name.equals(lambdaTemplate.getParameterNames().get(i))) {
-        slot = i;
-        break;
-      }
-    }
-    if (slot < 0) {
-      throw new JXException("Cannot resolve attribute " + this.name, this);
-    }
-    return frame.getArguments()[slot];
+    return argumentClass.profile(frame.getArguments()[index]);
   }
 }
@@ -0,0 +1,54 @@
+package com.oracle.truffle.jx.nodes.core;
+
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.nodes.JXStatementNode;
+
+/**
+ * Binding of a latent attribute. Unless the parser decides otherwise (see {@link
+ * com.oracle.truffle.jx.parser.MetaStack#canDefer}), the value is evaluated by need: the binding
+ * only stores itself in the slot as a marker, and the first {@link JXLatentReadNode} to find the
+ * marker evaluates the value and binds it. The value is thus computed at most once per evaluation
+ * of the enclosing literal, and not at all if no read of it runs.
+ */
+public final class JXLatentBindingNode extends JXStatementNode {
+
+  @Child private JXAttributeBindingNode binding;
+  @CompilationFinal private boolean byNeed;
+
+  public JXLatentBindingNode(JXAttributeBindingNode binding) {
+    this.binding = binding;
+  }
+
+  public int getSlot() {
+    return binding.getSlot();
+  }
+
+  public JXExpressionNode getVal() {
+    return binding.getVal();
+  }
+
+  public boolean isByNeed() {
+    return byNeed;
+  }
+
+  /** Set by the parser once the scope of the binding is closed, before it is ever executed. */
+  public void setByNeed(boolean byNeed) {
+    this.byNeed = byNeed;
+  }
+
+  @Override
+  public void executeVoid(VirtualFrame frame) {
+    if (byNeed) {
+      frame.setObject(getSlot(), this);
+    } else {
+      binding.executeVoid(frame);
+    }
+  }
+
+  /** Evaluates the value and binds it in place of the marker. */
+  Object force(VirtualFrame frame) {
+    return binding.executeGeneric(frame);
+  }
+}
@@ -0,0 +1,42 @@
+package com.oracle.truffle.jx.nodes.core;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+
+/**
+ * Reads a latent attribute, forcing its value if it is still pending. The binding that reaches
+ * this read is known at parse time, so it is a constant here and forcing it is a direct call.
+ */
+public final class JXLatentReadNode extends JXExpressionNode {
+
+  /* Not a child: it belongs to the literal that declares it. */
+  private final JXLatentBindingNode binding;
+  @Child private JXSlotAccessNode read;
+  private final BranchProfile pending = BranchProfile.create();
+
+  public JXLatentReadNode(JXLatentBindingNode binding, JXSlotAccessNode read) {
+    this.binding = binding;
+    this.read = read;
+  }
+
+  public JXLatentBindingNode getBinding() {
+    return binding;
+  }
+
+  public JXSlotAccessNode getRead() {
+    return read;
+  }
+
+  @Override
+  public Object executeGeneric(VirtualFrame frame) {
+    if (binding.isByNeed()) {
+      int slot = read.getSlot();
+      if (frame.isObject(slot) && frame.getObject(slot) == binding) {
+        pending.enter();
+        return binding.force(frame);
+      }
+    }
+    return read.executeGeneric(frame);
+  }
+}
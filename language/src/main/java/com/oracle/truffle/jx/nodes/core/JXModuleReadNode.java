@@ -0,0 +1,46 @@
+package com.oracle.truffle.jx.nodes.core;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.jx.JanivaLang;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.runtime.JXContext;
+import com.oracle.truffle.jx.runtime.JXModule;
+
+/**
+ * Reads an imported global. The module is evaluated when the global is first read rather than when
+ * the importing file starts running, so imports that are never used cost nothing.
+ */
+public final class JXModuleReadNode extends JXExpressionNode {
+
+  private final TruffleString name;
+  private final JXModule module;
+
+  /** The exported value, only cached while a single context uses this AST. */
+  @CompilationFinal private Object singleContextValue;
+
+  public JXModuleReadNode(TruffleString name, JXModule module) {
+    this.name = name;
+    this.module = module;
+  }
+
+  public TruffleString getName() {
+    return name;
+  }
+
+  @Override
+  public Object executeGeneric(VirtualFrame frame) {
+    if (JanivaLang.get(this).isSingleContext()) {
+      Object value = singleContextValue;
+      if (value == null) {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        value = JXContext.get(this).getModuleExport(module, this);
+        singleContextValue = value;
+      }
+      return value;
+    }
+    return JXContext.get(this).getModuleExport(module, this);
+  }
+}
@@ -1,49 +1,139 @@
 package com.oracle.truffle.jx.nodes.core;
 
-import com.oracle.truffle.api.dsl.NodeChild;
-import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.object.DynamicObjectLibrary;
+import com.oracle.truffle.api.strings.TruffleString;
 import com.oracle.truffle.jx.builtins.JXNewObjectBuiltin;
 import com.oracle.truffle.jx.nodes.JXExpressionNode;
 import com.oracle.truffle.jx.nodes.JXStatementNode;
+import com.oracle.truffle.jx.nodes.util.JXJsonWriteNode;
 import com.oracle.truffle.jx.runtime.JXObject;
-import java.util.List;
+import com.oracle.truffle.jx.runtime.io.JXJsonBuffer;
 
-@NodeChild
-public class JXObjectAssemblyNode extends JXExpressionNode {
-  private final List<JXStatementNode> bindings;
-  private final List<JXSlotAccessNode> accessors;
-  private final JXNewObjectBuiltin newObjectBuiltin;
+/**
+ * Assembles an object literal. The key set and its order are fixed at parse time (see {@link
+ * com.oracle.truffle.jx.parser.JXNodeFactory#endObject}), so every evaluation walks the exact same
+ * shape transition chain. Each key gets its own monomorphic {@link DynamicObjectLibrary}, which
+ * caches the transition and the property location, so after warm-up a store is a shape check
+ * plus a direct write.
+ *
+ * <p>When streamed (see {@link JXStreamableNode}) the members are written as their bindings
+ * complete. Nested literals bound to attributes nothing refers to are streamed themselves and never
+ * stored in the frame.
+ */
+public final class JXObjectAssemblyNode extends JXExpressionNode implements JXStreamableNode {
 
+  @Children private final JXStatementNode[] bindings;
+  @Children private final JXSlotAccessNode[] accessors;
+  @Children private final DynamicObjectLibrary[] stores;
+  @CompilationFinal(dimensions = 1)
+  private final TruffleString[] keys;
+
+  @Child private JXNewObjectBuiltin newObjectBuiltin;
+
+  /* Streaming layout, indexed like bindings: the pre-rendered key of an attribute binding (null
+   * for latent bindings) and whether its value is a nested literal to stream in place. The value
+   * itself is only reached through the binding, so copies of this node stay self-contained. */
+  @CompilationFinal(dimensions = 1)
+  private final byte[][] quotedKeys;
+
+  @CompilationFinal(dimensions = 1)
+  private final boolean[] streamed;
+
+  @Child private JXJsonWriteNode valueWriter;
+
+  /**
+   * @param unreferenced per binding, whether the attribute it binds is never read, so its value
+   *     does not have to be kept when streaming
+   */
   public JXObjectAssemblyNode(
-      List<JXStatementNode> bindings,
-      List<JXSlotAccessNode> accessors,
+      JXStatementNode[] bindings,
+      JXSlotAccessNode[] accessors,
+      boolean[] unreferenced,
       JXNewObjectBuiltin newObjectBuiltin) {
+    this.bindings = bindings;
     this.accessors = accessors;
     this.newObjectBuiltin = newObjectBuiltin;
-    this.bindings = bindings;
-    bindings.forEach(this::insert);
-    accessors.forEach(this::insert);
-    this.insert(newObjectBuiltin);
-    // Need to adopt children in order to support cached library
+    this.keys = new TruffleString[accessors.length];
+    this.stores = new DynamicObjectLibrary[accessors.length];
+    for (int i = 0; i < accessors.length; i++) {
+      keys[i] = accessors[i].getName();
+      stores[i] = DynamicObjectLibrary.getFactory().createDispatched(1);
+    }
+    this.quotedKeys = new byte[bindings.length][];
+    this.streamed = new boolean[bindings.length];
+    for (int i = 0; i < bindings.length; i++) {
+      if (!(bindings[i] instanceof JXAttributeBindingNode)) {
+        continue;
+      }
+      JXAttributeBindingNode binding = (JXAttributeBindingNode) bindings[i];
+      if (binding.isLatent()) {
+        continue;
+      }
+      quotedKeys[i] = JXJsonBuffer.quoteKey(keyOf(binding.getSlot()).toJavaStringUncached());
+      streamed[i] = unreferenced[i] && binding.getVal() instanceof JXStreamableNode;
+    }
+  }
+
+  private TruffleString keyOf(int slot) {
+    for (JXSlotAccessNode accessor : accessors) {
+      if (accessor.getSlot() == slot) {
+        return accessor.getName();
+      }
+    }
+    throw new IllegalStateException("No key for slot " + slot);
+  }
+
+  public TruffleString[] getKeys() {
+    return keys;
   }
 
+  @ExplodeLoop
   @Override
   public Object executeGeneric(VirtualFrame frame) {
-    DynamicObjectLibrary dynamicObjectLibrary = DynamicObjectLibrary.getFactory().getUncached();
     JXObject jxObject = (JXObject) newObjectBuiltin.executeGeneric(frame);
     for (JXStatementNode bindingNode : bindings) {
-      if (bindingNode instanceof JXAttributeBindingNode) {
-        if (((JXAttributeBindingNode) bindingNode).isLatent()) {
-          // don't assemble latent nodes
-        }
-      }
       bindingNode.executeVoid(frame);
     }
-    for (JXSlotAccessNode n : accessors) {
-      dynamicObjectLibrary.put(jxObject, n.getName(), n.executeGeneric(frame));
+    for (int i = 0; i < accessors.length; i++) {
+      stores[i].put(jxObject, keys[i], accessors[i].executeGeneric(frame));
     }
     return jxObject;
   }
+
+  @ExplodeLoop
+  @Override
+  public void executeStreaming(VirtualFrame frame, JXJsonBuffer out) {
+    out.write(JXJsonBuffer.OBJECT_OPEN);
+    boolean first = true;
+    for (int i = 0; i < bindings.length; i++) {
+      if (quotedKeys[i] == null) {
+        bindings[i].executeVoid(frame);
+        continue;
+      }
+      if (!first) {
+        out.write(JXJsonBuffer.MEMBER_SEP);
+      }
+      first = false;
+      out.write(quotedKeys[i]);
+      if (streamed[i]) {
+        JXExpressionNode value = ((JXAttributeBindingNode) bindings[i]).getVal();
+        ((JXStreamableNode) value).executeStreaming(frame, out);
+      } else {
+        getValueWriter().execute(out, ((JXExpressionNode) bindings[i]).executeGeneric(frame));
+      }
+    }
+    out.write(JXJsonBuffer.OBJECT_CLOSE);
+  }
+
+  private JXJsonWriteNode getValueWriter() {
+    if (valueWriter == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      valueWriter = insert(JXJsonWriteNode.create());
+    }
+    return valueWriter;
+  }
 }
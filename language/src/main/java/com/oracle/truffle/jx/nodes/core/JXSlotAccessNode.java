@@ -1,20 +1,51 @@
 package com.oracle.truffle.jx.nodes.core;
 
-import com.oracle.truffle.api.dsl.NodeField;import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.strings.TruffleString;
 import com.oracle.truffle.jx.nodes.JXExpressionNode;
 
+/**
+ * Reads an attribute from its frame slot, without boxing while the slot holds primitives, see
+ * {@link JXAttributeBindingNode}.
+ */
 @NodeField(name = "slot", type = int.class)
 @NodeField(name = "name", type = TruffleString.class)
 public abstract class JXSlotAccessNode extends JXExpressionNode {
 
-  abstract int getSlot();
-  abstract TruffleString getName();
+  public abstract int getSlot();
 
-  @Specialization
-  public Object executeInt(VirtualFrame frame) {
-    return frame.getObject(getSlot());
+  public abstract TruffleString getName();
+
+  @Specialization(guards = "frame.isLong(getSlot())")
+  protected long readLong(VirtualFrame frame) {
+    return frame.getLong(getSlot());
+  }
+
+  @Specialization(guards = "frame.isDouble(getSlot())")
+  protected double readDouble(VirtualFrame frame) {
+    return frame.getDouble(getSlot());
   }
 
+  @Specialization(guards = "frame.isBoolean(getSlot())")
+  protected boolean readBoolean(VirtualFrame frame) {
+    return frame.getBoolean(getSlot());
+  }
+
+  @Specialization(replaces = {"readLong", "readDouble", "readBoolean"})
+  protected Object readObject(VirtualFrame frame) {
+    if (!frame.isObject(getSlot())) {
+      /*
+       * The slot became Object after this frame stored a primitive in it. Box it once, so this
+       * frame does not take the slow path again.
+       */
+      CompilerDirectives.transferToInterpreter();
+      Object result = frame.getValue(getSlot());
+      frame.setObject(getSlot(), result);
+      return result;
+    }
+    return frame.getObject(getSlot());
+  }
 }
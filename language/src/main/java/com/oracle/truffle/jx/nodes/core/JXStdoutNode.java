@@ -1,22 +1,32 @@
 package com.oracle.truffle.jx.nodes.core;
 
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.jx.JXException;
 import com.oracle.truffle.jx.nodes.JXExpressionNode;
-import com.oracle.truffle.jx.runtime.io.IOUtils;
+import com.oracle.truffle.jx.nodes.util.JXJsonWriteNode;
+import com.oracle.truffle.jx.runtime.JXContext;
+import com.oracle.truffle.jx.runtime.io.JXJsonBuffer;
 import java.io.IOException;
 
 @NodeChild("child")
 public abstract class JXStdoutNode extends JXExpressionNode {
 
+  public abstract JXExpressionNode getChild();
+
   @Specialization
-  public Object executeObject(Object v) {
+  public Object executeObject(Object v, @Cached JXJsonWriteNode writeNode) {
+    JXContext context = JXContext.get(this);
+    JXJsonBuffer buffer = context.acquireJsonBuffer();
     try {
-      IOUtils.writeJanivaObjectIntoStream(System.out, v);
+      writeNode.execute(buffer, v);
+      buffer.writeTo(context.getOutputChannel());
       return v;
     } catch (IOException e) {
       throw new JXException("Get io exception when writing to stdout", this);
+    } finally {
+      context.releaseJsonBuffer(buffer);
     }
   }
 }
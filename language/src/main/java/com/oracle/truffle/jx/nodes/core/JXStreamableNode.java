@@ -0,0 +1,13 @@
+package com.oracle.truffle.jx.nodes.core;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.jx.runtime.io.JXJsonBuffer;
+
+/**
+ * A literal that can write its JSON into a buffer while it is being evaluated, without assembling
+ * the value first. Used by {@link JXStreamingStdoutNode}.
+ */
+public interface JXStreamableNode {
+
+  void executeStreaming(VirtualFrame frame, JXJsonBuffer out);
+}
@@ -0,0 +1,49 @@
+package com.oracle.truffle.jx.nodes.core;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.jx.JXException;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.runtime.JSNull;
+import com.oracle.truffle.jx.runtime.JXContext;
+import com.oracle.truffle.jx.runtime.io.JXJsonBuffer;
+import java.io.IOException;
+
+/**
+ * Root {@code @stdout << literal}. With {@link com.oracle.truffle.jx.JXOptions#StreamOutput} set,
+ * the literal is written while it is evaluated and the buffer is drained to the context output
+ * whenever it fills up, so neither the document tree nor its full text is ever held in memory. The result is
+ * then {@code null}. Otherwise it behaves exactly like the wrapped {@link JXStdoutNode}.
+ */
+public final class JXStreamingStdoutNode extends JXExpressionNode {
+
+  @Child private JXStdoutNode stdoutNode;
+  private final JXStreamableNode literal;
+
+  public JXStreamingStdoutNode(JXStdoutNode stdoutNode) {
+    this.stdoutNode = stdoutNode;
+    this.literal = (JXStreamableNode) stdoutNode.getChild();
+  }
+
+  public JXStdoutNode getStdoutNode() {
+    return stdoutNode;
+  }
+
+  @Override
+  public Object executeGeneric(VirtualFrame frame) {
+    JXContext context = JXContext.get(this);
+    if (!context.isStreamOutput()) {
+      return stdoutNode.executeGeneric(frame);
+    }
+    JXJsonBuffer buffer = context.acquireJsonBuffer();
+    try {
+      buffer.streamTo(context.getOutputChannel());
+      literal.executeStreaming(frame, buffer);
+      buffer.writeTo(context.getOutputChannel());
+      return JSNull.SINGLETON;
+    } catch (IOException e) {
+      throw new JXException("Get io exception when writing to stdout", this);
+    } finally {
+      context.releaseJsonBuffer(buffer);
+    }
+  }
+}
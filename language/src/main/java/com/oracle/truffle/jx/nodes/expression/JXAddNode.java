@@ -50,6 +50,7 @@ import com.oracle.truffle.api.strings.TruffleString;
 import com.oracle.truffle.jx.JXException;
 import com.oracle.truffle.jx.JanivaLang;
 import com.oracle.truffle.jx.nodes.JXBinaryNode;
+import com.oracle.truffle.jx.nodes.util.ExactMath;
 import com.oracle.truffle.jx.nodes.JanivaTypes;
 import com.oracle.truffle.jx.nodes.util.SLToTruffleStringNode;
 import com.oracle.truffle.jx.runtime.JXBigNumber;
@@ -87,6 +88,16 @@ public abstract class JXAddNode extends JXBinaryNode {
     return Math.addExact(left, right);
   }
 
+  /**
+   * Specialization for decimals that are exactly representable as {@code double}. The addition is
+   * only kept on this path while it stays exact; a rounding result rewrites to the {@link
+   * #add(JXBigNumber, JXBigNumber) slow path}, the same way an overflow does for {@code long}.
+   */
+  @Specialization(rewriteOn = ArithmeticException.class)
+  protected double add(double left, double right) {
+    return ExactMath.addExact(left, right);
+  }
+
   /**
    * This is the slow path of the arbitrary-precision arithmetic. The {@link JXBigNumber} type of
    * Java is doing everything we need.
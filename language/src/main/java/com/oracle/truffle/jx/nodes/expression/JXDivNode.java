@@ -46,6 +46,7 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.jx.JXException;
 import com.oracle.truffle.jx.nodes.JXBinaryNode;
+import com.oracle.truffle.jx.nodes.util.ExactMath;
 import com.oracle.truffle.jx.runtime.JXBigNumber;
 
 /**
@@ -58,6 +59,13 @@ public abstract class JXDivNode extends JXBinaryNode {
 
   @Specialization(rewriteOn = ArithmeticException.class)
   protected long div(long left, long right) throws ArithmeticException {
+    /*
+     * Janiva division is decimal division, the long path only covers quotients without a
+     * remainder. Division by zero also throws here and is reported by the slow path.
+     */
+    if (left % right != 0) {
+      throw new ArithmeticException("inexact long division");
+    }
     long result = left / right;
     /*
      * The division overflows if left is Long.MIN_VALUE and right is -1.
@@ -68,6 +76,11 @@ public abstract class JXDivNode extends JXBinaryNode {
     return result;
   }
 
+  @Specialization(rewriteOn = ArithmeticException.class)
+  protected double div(double left, double right) {
+    return ExactMath.divideExact(left, right);
+  }
+
   @Specialization
   @TruffleBoundary
   protected JXBigNumber div(JXBigNumber left, JXBigNumber right) {
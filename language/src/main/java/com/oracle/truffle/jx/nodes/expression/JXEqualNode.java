@@ -71,6 +71,11 @@ public abstract class JXEqualNode extends JXBinaryNode {
     return left == right;
   }
 
+  @Specialization
+  protected boolean doDouble(double left, double right) {
+    return left == right;
+  }
+
   @Specialization
   @TruffleBoundary
   protected boolean doBigNumber(JXBigNumber left, JXBigNumber right) {
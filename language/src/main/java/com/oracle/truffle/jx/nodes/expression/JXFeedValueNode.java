@@ -1,50 +1,109 @@
 package com.oracle.truffle.jx.nodes.expression;
 
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.dsl.*;
 import com.oracle.truffle.api.frame.VirtualFrame;
-import com.oracle.truffle.api.library.CachedLibrary;
-import com.oracle.truffle.api.object.DynamicObject;
-import com.oracle.truffle.api.object.DynamicObjectLibrary;
+import com.oracle.truffle.api.nodes.DirectCallNode;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.IndirectCallNode;
 import com.oracle.truffle.jx.JXException;
+import com.oracle.truffle.jx.JanivaLang;
 import com.oracle.truffle.jx.nodes.JXExpressionNode;
 import com.oracle.truffle.jx.runtime.JXPartialLambda;
-import java.util.ArrayList;
+import com.oracle.truffle.jx.statics.lambda.LambdaTemplate;
 import java.util.List;
-import java.util.function.Supplier;
 
+/**
+ * Feeds the arguments of {@code @f << a << b ...} to a lambda. The arguments are evaluated
+ * straight into an array sized to the arity of the lambda, which is either passed to the call
+ * target or becomes the argument array of the resulting partial lambda; no other copy is made.
+ */
 @NodeChild("child")
 public abstract class JXFeedValueNode extends JXExpressionNode {
 
-  private final Object[] EMPTY_ARGS = new Object[] {};
-  private final List<JXExpressionNode> args = new ArrayList<>();
-
-  @Specialization(limit = "3")
-  public Object executeSpecialized(
-          VirtualFrame virtualFrame,
-          DynamicObject child,
-          @CachedLibrary("child") DynamicObjectLibrary library) {
-    if (isPartialApplicable(child)) {
-      // Need to clone to avoid mutating internal state of original one
-      JXPartialLambda res =
-          ((JXPartialLambda) child)
-              .clone(library)
-              .mergeArgs(args.stream().map(a -> a.executeGeneric(virtualFrame)).toArray(), library);
-      if (res.isExecutable()) {
-        // automatically evaluate
-        return res.execute(EMPTY_ARGS, library);
-      } else {
-        return res;
-      }
+  static final int INLINE_CACHE_SIZE = 3;
+
+  @Children private final JXExpressionNode[] args;
+
+  protected JXFeedValueNode(JXExpressionNode[] args) {
+    this.args = args;
+  }
+
+  public static JXFeedValueNode create(JXExpressionNode lambda, List<JXExpressionNode> args) {
+    JXExpressionNode[] argNodes =
+        args == null ? new JXExpressionNode[0] : args.toArray(new JXExpressionNode[0]);
+    return JXFeedValueNodeGen.create(argNodes, lambda);
+  }
+
+  /**
+   * Inline cache keyed by template identity and the number of arguments already applied. All
+   * partial lambdas derived from one template share its call target, so a direct call node lets
+   * the callee be inlined and compiled once; with the offset fixed, building the arguments is a
+   * constant length copy plus one store per argument.
+   */
+  @Specialization(
+      guards = {"child.getTemplate() == cachedTemplate", "child.getOffset() == cachedOffset"},
+      assumptions = "callTargetStable",
+      limit = "INLINE_CACHE_SIZE")
+  public Object doDirect(
+      VirtualFrame virtualFrame,
+      JXPartialLambda child,
+      @Cached("child.getTemplate()") LambdaTemplate cachedTemplate,
+      @Cached("child.getOffset()") int cachedOffset,
+      @Cached("child.getArity()") int cachedArity,
+      @Cached("cachedTemplate.getCallTargetStable()") Assumption callTargetStable,
+      @Cached("create(cachedTemplate.getCallTarget(lookupLanguage()))") DirectCallNode callNode) {
+    int count = cachedOffset + args.length;
+    if (count > cachedArity) {
+      cachedTemplate.throwParameterLenNotMatch(count);
+    }
+    if (args.length == 0 && count < cachedArity) {
+      return child;
+    }
+    Object[] callArgs = new Object[cachedArity];
+    child.copyArgs(callArgs);
+    evaluateArgs(virtualFrame, callArgs, cachedOffset);
+    if (count == cachedArity) {
+      // automatically evaluate
+      return callNode.call(callArgs);
     }
+    return child.withArgs(callArgs, count);
+  }
+
+  @Specialization(replaces = "doDirect")
+  public Object doIndirect(
+      VirtualFrame virtualFrame, JXPartialLambda child, @Cached IndirectCallNode callNode) {
+    int offset = child.getOffset();
+    int arity = child.getArity();
+    int count = offset + args.length;
+    if (count > arity) {
+      child.getTemplate().throwParameterLenNotMatch(count);
+    }
+    if (args.length == 0 && count < arity) {
+      return child;
+    }
+    Object[] callArgs = new Object[arity];
+    child.copyArgs(callArgs);
+    evaluateArgs(virtualFrame, callArgs, offset);
+    if (count == arity) {
+      return callNode.call(child.getCallTarget(), callArgs);
+    }
+    return child.withArgs(callArgs, count);
+  }
+
+  @Fallback
+  public Object doUnsupported(Object child) {
     throw new JXException("Not supported: " + child.getClass(), this);
   }
 
-  public void feed(List<JXExpressionNode> args) {
-    if (args == null) return;
-    this.args.addAll(args);
+  @ExplodeLoop
+  private void evaluateArgs(VirtualFrame virtualFrame, Object[] dst, int offset) {
+    for (int i = 0; i < args.length; i++) {
+      dst[offset + i] = args[i].executeGeneric(virtualFrame);
+    }
   }
 
-  boolean isPartialApplicable(Object o) {
-    return o instanceof JXPartialLambda;
+  final JanivaLang lookupLanguage() {
+    return JanivaLang.get(this);
   }
 }
@@ -0,0 +1,67 @@
+package com.oracle.truffle.jx.nodes.expression;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.DirectCallNode;
+import com.oracle.truffle.api.nodes.IndirectCallNode;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.jx.JXException;
+import com.oracle.truffle.jx.JanivaLang;
+import com.oracle.truffle.jx.runtime.JXPartialLambda;
+import com.oracle.truffle.jx.statics.lambda.LambdaTemplate;
+
+/**
+ * Applies a lambda value to arguments computed at run time, e.g. by built-ins that call a lambda
+ * once per element. Like {@link JXFeedValueNode} it caches a direct call per lambda template. If
+ * the lambda is still partial after applying the arguments a new partial lambda is returned.
+ */
+public abstract class JXLambdaCallNode extends Node {
+
+  static final int INLINE_CACHE_SIZE = 3;
+
+  public abstract Object execute(Object lambda, Object[] args);
+
+  public static JXLambdaCallNode create() {
+    return JXLambdaCallNodeGen.create();
+  }
+
+  @Specialization(
+      guards = "lambda.getTemplate() == cachedTemplate",
+      assumptions = "callTargetStable",
+      limit = "INLINE_CACHE_SIZE")
+  protected Object doDirect(
+      JXPartialLambda lambda,
+      Object[] args,
+      @Cached("lambda.getTemplate()") LambdaTemplate cachedTemplate,
+      @Cached("cachedTemplate.getCallTargetStable()") Assumption callTargetStable,
+      @Cached("create(cachedTemplate.getCallTarget(lookupLanguage()))") DirectCallNode callNode) {
+    Object[] callArgs = lambda.argsWith(args);
+    if (callArgs == null) {
+      return lambda.apply(args);
+    }
+    return callNode.call(callArgs);
+  }
+
+  @Specialization(replaces = "doDirect")
+  protected Object doIndirect(
+      JXPartialLambda lambda,
+      Object[] args,
+      @Cached IndirectCallNode callNode) {
+    Object[] callArgs = lambda.argsWith(args);
+    if (callArgs == null) {
+      return lambda.apply(args);
+    }
+    return callNode.call(lambda.getCallTarget(), callArgs);
+  }
+
+  @Fallback
+  protected Object doUnsupported(Object lambda, @SuppressWarnings("unused") Object[] args) {
+    throw new JXException("Expecting a lambda, getting: " + lambda, this);
+  }
+
+  final JanivaLang lookupLanguage() {
+    return JanivaLang.get(this);
+  }
+}
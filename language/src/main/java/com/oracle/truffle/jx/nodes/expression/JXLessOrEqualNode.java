@@ -57,6 +57,11 @@ public abstract class JXLessOrEqualNode extends JXBinaryNode {
     return left <= right;
   }
 
+  @Specialization
+  protected boolean lessOrEqual(double left, double right) {
+    return left <= right;
+  }
+
   @Specialization
   @TruffleBoundary
   protected boolean lessOrEqual(JXBigNumber left, JXBigNumber right) {
@@ -60,6 +60,11 @@ public abstract class JXLessThanNode extends JXBinaryNode {
     return left < right;
   }
 
+  @Specialization
+  protected boolean lessThan(double left, double right) {
+    return left < right;
+  }
+
   @Specialization
   @TruffleBoundary
   protected boolean lessThan(JXBigNumber left, JXBigNumber right) {
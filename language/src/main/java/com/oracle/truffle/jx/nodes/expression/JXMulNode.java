@@ -46,6 +46,7 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.jx.JXException;
 import com.oracle.truffle.jx.nodes.JXBinaryNode;
+import com.oracle.truffle.jx.nodes.util.ExactMath;
 import com.oracle.truffle.jx.runtime.JXBigNumber;
 
 /** This class is similar to the extensively documented {@link JXAddNode}. */
@@ -57,6 +58,11 @@ public abstract class JXMulNode extends JXBinaryNode {
     return Math.multiplyExact(left, right);
   }
 
+  @Specialization(rewriteOn = ArithmeticException.class)
+  protected double mul(double left, double right) {
+    return ExactMath.multiplyExact(left, right);
+  }
+
   @Specialization
   @TruffleBoundary
   protected JXBigNumber mul(JXBigNumber left, JXBigNumber right) {
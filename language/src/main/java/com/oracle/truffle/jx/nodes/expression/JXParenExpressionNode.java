@@ -70,6 +70,11 @@ public class JXParenExpressionNode extends JXExpressionNode {
     return expression.executeLong(frame);
   }
 
+  @Override
+  public double executeDouble(VirtualFrame frame) throws UnexpectedResultException {
+    return expression.executeDouble(frame);
+  }
+
   @Override
   public boolean executeBoolean(VirtualFrame frame) throws UnexpectedResultException {
     return expression.executeBoolean(frame);
@@ -46,6 +46,7 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.jx.JXException;
 import com.oracle.truffle.jx.nodes.JXBinaryNode;
+import com.oracle.truffle.jx.nodes.util.ExactMath;
 import com.oracle.truffle.jx.runtime.JXBigNumber;
 
 /** This class is similar to the extensively documented {@link JXAddNode}. */
@@ -57,6 +58,11 @@ public abstract class JXSubNode extends JXBinaryNode {
     return Math.subtractExact(left, right);
   }
 
+  @Specialization(rewriteOn = ArithmeticException.class)
+  protected double sub(double left, double right) {
+    return ExactMath.subtractExact(left, right);
+  }
+
   @Specialization
   @TruffleBoundary
   protected JXBigNumber sub(JXBigNumber left, JXBigNumber right) {
@@ -6,7 +6,7 @@ import com.oracle.truffle.jx.nodes.JXExpressionNode;
 import org.antlr.v4.runtime.Token;
 
 @NodeInfo(shortName = "j_boolean")
-public class JXBoolLiteralNode extends JXExpressionNode {
+public class JXBoolLiteralNode extends JXExpressionNode implements JXConstantNode {
   private static final String TRUE = "true";
   private static final String FALSE = "false";
   private final Boolean val;
@@ -24,6 +24,20 @@ public class JXBoolLiteralNode extends JXExpressionNode {
     }
   }
 
+  public JXBoolLiteralNode(boolean val) {
+    this.val = val;
+  }
+
+  @Override
+  public Object getConstantValue() {
+    return val;
+  }
+
+  @Override
+  public boolean executeBoolean(VirtualFrame frame) {
+    return val;
+  }
+
   @Override
   public Boolean executeGeneric(VirtualFrame frame) {
     return val;
@@ -0,0 +1,7 @@
+package com.oracle.truffle.jx.nodes.expression.value;
+
+/** A literal, whose value is known at parse time. */
+public interface JXConstantNode {
+
+  Object getConstantValue();
+}
@@ -0,0 +1,49 @@
+package com.oracle.truffle.jx.nodes.expression.value;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.nodes.core.JXStreamableNode;
+import com.oracle.truffle.jx.nodes.util.JXJsonWriteNode;
+import com.oracle.truffle.jx.runtime.io.JXJsonBuffer;
+
+/**
+ * An object or array literal made of literals only, evaluated once at parse time. The value is
+ * frozen, so it is returned as is on every evaluation; when streamed, its JSON form is rendered on
+ * first use and then copied verbatim.
+ */
+@NodeInfo(shortName = "frozen")
+public final class JXFrozenValueNode extends JXExpressionNode
+    implements JXConstantNode, JXStreamableNode {
+
+  private final Object value;
+  @CompilationFinal(dimensions = 1)
+  private byte[] rendered;
+
+  public JXFrozenValueNode(Object value) {
+    this.value = value;
+  }
+
+  @Override
+  public Object getConstantValue() {
+    return value;
+  }
+
+  @Override
+  public Object executeGeneric(VirtualFrame frame) {
+    return value;
+  }
+
+  @Override
+  public void executeStreaming(VirtualFrame frame, JXJsonBuffer out) {
+    if (rendered == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      JXJsonBuffer tmp = new JXJsonBuffer();
+      insert(JXJsonWriteNode.create()).execute(tmp, value);
+      rendered = tmp.toByteArray();
+    }
+    out.write(rendered);
+  }
+}
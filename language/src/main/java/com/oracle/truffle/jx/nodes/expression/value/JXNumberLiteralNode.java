@@ -2,28 +2,145 @@ package com.oracle.truffle.jx.nodes.expression.value;
 
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.NodeInfo;
+import com.oracle.truffle.api.nodes.UnexpectedResultException;
 import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.nodes.util.ExactMath;
 import com.oracle.truffle.jx.runtime.JXBigNumber;
 import java.math.BigDecimal;
 
+/**
+ * Number literal. The representation is picked once at parse time: an unboxed {@code long} for
+ * integers, a {@code double} for decimals it represents exactly, and a shared {@link JXBigNumber}
+ * for everything else. Decimals with trailing zeros, like {@code 1.50}, are kept as written, so
+ * they stay big numbers.
+ */
 @NodeInfo(shortName = "j_number")
-public class JXNumberLiteralNode extends JXExpressionNode {
+public class JXNumberLiteralNode extends JXExpressionNode implements JXConstantNode {
+
+  enum Kind {
+    LONG,
+    DOUBLE,
+    BIG
+  }
 
   private final BigDecimal val;
 
   private final boolean hasDecimal;
 
+  private final Kind kind;
+  private final long longValue;
+  private final double doubleValue;
+  private final JXBigNumber bigValue;
+
   public JXNumberLiteralNode(BigDecimal val, boolean hasDecimal) {
     this.val = val;
     this.hasDecimal = hasDecimal;
+    if (!hasDecimal && fitsInLong(val)) {
+      this.kind = Kind.LONG;
+    } else if (hasDecimal && ExactMath.isExactDouble(val) && keepsScale(val)) {
+      this.kind = Kind.DOUBLE;
+    } else {
+      this.kind = Kind.BIG;
+    }
+    this.longValue = kind == Kind.LONG ? val.longValue() : 0;
+    this.doubleValue = kind == Kind.DOUBLE ? val.doubleValue() : 0;
+    this.bigValue = kind == Kind.BIG ? new JXBigNumber(val) : null;
+  }
+
+  private JXNumberLiteralNode(
+      Kind kind, BigDecimal val, boolean hasDecimal, long l, double d, JXBigNumber big) {
+    this.kind = kind;
+    this.val = val;
+    this.hasDecimal = hasDecimal;
+    this.longValue = l;
+    this.doubleValue = d;
+    this.bigValue = big;
+  }
+
+  /**
+   * Literal of a number computed at parse time, keeping its run-time representation.
+   *
+   * @return {@code null} if {@code value} is not a number
+   */
+  public static JXNumberLiteralNode fromValue(Object value) {
+    if (value instanceof Long) {
+      long l = (Long) value;
+      return new JXNumberLiteralNode(Kind.LONG, BigDecimal.valueOf(l), false, l, 0, null);
+    }
+    if (value instanceof Double) {
+      double d = (Double) value;
+      return new JXNumberLiteralNode(Kind.DOUBLE, BigDecimal.valueOf(d), true, 0, d, null);
+    }
+    if (value instanceof JXBigNumber) {
+      JXBigNumber big = (JXBigNumber) value;
+      BigDecimal bd = big.getValue();
+      return new JXNumberLiteralNode(Kind.BIG, bd, bd.scale() > 0, 0, 0, big);
+    }
+    return null;
+  }
+
+  @Override
+  public Object getConstantValue() {
+    return executeGeneric(null);
   }
 
   public boolean hasDecimal() {
     return hasDecimal;
   }
 
+  /** @return whether the literal evaluates to a primitive {@code long} */
+  public boolean isLong() {
+    return kind == Kind.LONG;
+  }
+
+  /** @return whether the literal evaluates to a primitive {@code double} */
+  public boolean isDouble() {
+    return kind == Kind.DOUBLE;
+  }
+
+  public BigDecimal getValue() {
+    return val;
+  }
+
+  @Override
+  public Object executeGeneric(VirtualFrame frame) {
+    switch (kind) {
+      case LONG:
+        return longValue;
+      case DOUBLE:
+        return doubleValue;
+      default:
+        return bigValue;
+    }
+  }
+
   @Override
-  public JXBigNumber executeGeneric(VirtualFrame frame) {
-    return new JXBigNumber(val);
+  public long executeLong(VirtualFrame frame) throws UnexpectedResultException {
+    if (kind == Kind.LONG) {
+      return longValue;
+    }
+    throw new UnexpectedResultException(executeGeneric(frame));
+  }
+
+  @Override
+  public double executeDouble(VirtualFrame frame) throws UnexpectedResultException {
+    if (kind == Kind.DOUBLE) {
+      return doubleValue;
+    }
+    throw new UnexpectedResultException(executeGeneric(frame));
+  }
+
+  /** @return whether the {@code double} of {@code value} prints the way {@code value} does */
+  private static boolean keepsScale(BigDecimal value) {
+    return BigDecimal.valueOf(value.doubleValue()).equals(value);
+  }
+
+  private static boolean fitsInLong(BigDecimal value) {
+    try {
+      value.longValueExact();
+      return true;
+    } catch (ArithmeticException e) {
+      return false;
+    }
   }
 }
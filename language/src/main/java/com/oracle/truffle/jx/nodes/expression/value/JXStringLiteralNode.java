@@ -47,7 +47,7 @@ import com.oracle.truffle.jx.nodes.JXExpressionNode;
 
 /** Constant literal for a String value. */
 @NodeInfo(shortName = "const")
-public final class JXStringLiteralNode extends JXExpressionNode {
+public final class JXStringLiteralNode extends JXExpressionNode implements JXConstantNode {
 
   private final TruffleString value;
 
@@ -55,6 +55,11 @@ public final class JXStringLiteralNode extends JXExpressionNode {
     this.value = value;
   }
 
+  @Override
+  public Object getConstantValue() {
+    return value;
+  }
+
   @Override
   public TruffleString executeGeneric(VirtualFrame frame) {
     return value;
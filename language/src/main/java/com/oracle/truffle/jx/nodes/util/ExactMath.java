@@ -0,0 +1,98 @@
+package com.oracle.truffle.jx.nodes.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Exactness-checked arithmetic on doubles. Janiva numbers have {@link BigDecimal}
+ * semantics, so a double result is only acceptable when no rounding happened, and when it has the
+ * scale {@link BigDecimal} would give it: a double prints as {@code BigDecimal.valueOf(double)}, so
+ * {@code 1.5 * 2.0} must not be {@code 3.0} where {@code BigDecimal} makes it {@code 3.00}. Each
+ * operation throws {@link ArithmeticException} otherwise, which lets specializations use {@code
+ * rewriteOn} to fall back to the arbitrary-precision path.
+ */
+public abstract class ExactMath {
+
+  /*
+   * Results have at most 7 integer and 8 fraction digits, so that they print as plain decimals,
+   * each digit exact.
+   */
+  private static final double MAX_MAGNITUDE = 1e7;
+  private static final int MAX_SCALE = 8;
+
+  public static double addExact(double left, double right) {
+    double sum = left + right;
+    // TwoSum: recovers the rounding error of the addition without branching on magnitudes
+    double rightVirtual = sum - left;
+    double error = (left - (sum - rightVirtual)) + (right - rightVirtual);
+    if (error != 0 || !Double.isFinite(sum)) {
+      throw new ArithmeticException("inexact double addition");
+    }
+    return withScale(sum, Math.max(scale(left), scale(right)));
+  }
+
+  public static double subtractExact(double left, double right) {
+    return addExact(left, -right);
+  }
+
+  public static double multiplyExact(double left, double right) {
+    double product = left * right;
+    if (!Double.isFinite(product) || Math.fma(left, right, -product) != 0) {
+      throw new ArithmeticException("inexact double multiplication");
+    }
+    return withScale(product, scale(left) + scale(right));
+  }
+
+  public static double divideExact(double left, double right) {
+    if (right == 0) {
+      throw new ArithmeticException("Division by zero");
+    }
+    double quotient = left / right;
+    if (!Double.isFinite(quotient) || Math.fma(quotient, right, -left) != 0) {
+      throw new ArithmeticException("inexact double division");
+    }
+    // BigDecimal#divide keeps the difference of the scales, unless the quotient needs more
+    return withScale(quotient, Math.max(scale(left) - scale(right), fractionDigits(quotient)));
+  }
+
+  /**
+   * @return the scale of {@code BigDecimal.valueOf(value)}, for a double that prints as the decimal
+   *     it represents exactly
+   */
+  public static int scale(double value) {
+    // a double always prints with a fraction digit, like 3.0
+    return Math.max(1, fractionDigits(value));
+  }
+
+  /**
+   * @return the number of binary fraction digits of {@code value}, which is its number of decimal
+   *     ones too: m / 2^k is m * 5^k / 10^k, whose last digit is not 0 for an odd m
+   */
+  private static int fractionDigits(double value) {
+    if (value == 0) {
+      return 0;
+    }
+    long significand = Double.doubleToRawLongBits(value) & ((1L << 52) - 1);
+    int exponent = Math.getExponent(value);
+    if (exponent < Double.MIN_EXPONENT) {
+      exponent = Double.MIN_EXPONENT;
+    } else {
+      significand |= 1L << 52;
+    }
+    return Math.max(0, 52 - exponent - Long.numberOfTrailingZeros(significand));
+  }
+
+  private static double withScale(double result, int scale) {
+    if (scale > MAX_SCALE || Math.abs(result) >= MAX_MAGNITUDE || scale(result) != scale) {
+      throw new ArithmeticException("double result of another scale");
+    }
+    return result;
+  }
+
+  /**
+   * @return whether {@code value} can be stored as a double without changing its numeric value
+   */
+  public static boolean isExactDouble(BigDecimal value) {
+    double d = value.doubleValue();
+    return Double.isFinite(d) && new BigDecimal(d).compareTo(value) == 0;
+  }
+}
@@ -0,0 +1,319 @@
+package com.oracle.truffle.jx.nodes.util;
+
+import static com.oracle.truffle.jx.runtime.io.JXJsonBuffer.*;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.object.DynamicObjectLibrary;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.api.strings.InternalByteArray;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.jx.JXException;
+import com.oracle.truffle.jx.runtime.JSNull;
+import com.oracle.truffle.jx.runtime.JXArray;
+import com.oracle.truffle.jx.runtime.JXBigNumber;
+import com.oracle.truffle.jx.runtime.JXObject;
+import com.oracle.truffle.jx.runtime.io.JXJsonBuffer;
+import com.oracle.truffle.jx.runtime.view.AbstractArrayView;
+import com.oracle.truffle.jx.runtime.view.JXFrozenArrayView;
+import com.oracle.truffle.jx.runtime.view.JXLazyArrayView;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializes a Janiva value as JSON into a {@link JXJsonBuffer}. Objects are specialized on their
+ * {@link Shape}, so the key list and the quoted key bytes are computed once per shape instead of
+ * once per member. Nested values are written by a child writer, which specializes on what it sees
+ * at that depth.
+ */
+public abstract class JXJsonWriteNode extends Node {
+
+  static final int SHAPE_LIMIT = 3;
+  static final int LIBRARY_LIMIT = 3;
+
+  private static final byte[] TRUE = ascii("true");
+  private static final byte[] FALSE = ascii("false");
+  private static final byte[] NULL = ascii("null");
+
+  public abstract void execute(JXJsonBuffer out, Object value);
+
+  public static JXJsonWriteNode create() {
+    return JXJsonWriteNodeGen.create();
+  }
+
+  @Specialization
+  protected static void doBoolean(JXJsonBuffer out, boolean value) {
+    out.write(value ? TRUE : FALSE);
+  }
+
+  @Specialization
+  protected static void doLong(JXJsonBuffer out, long value) {
+    out.writeLong(value);
+  }
+
+  @Specialization
+  protected static void doDouble(JXJsonBuffer out, double value) {
+    out.writeAscii(JXBigNumber.doubleToString(value));
+  }
+
+  @Specialization
+  protected static void doBigNumber(JXJsonBuffer out, JXBigNumber value) {
+    out.writeAscii(bigDecimalToString(value.getValue()));
+  }
+
+  @Specialization
+  protected static void doString(
+      JXJsonBuffer out,
+      TruffleString value,
+      @Cached TruffleString.SwitchEncodingNode switchEncodingNode,
+      @Cached TruffleString.GetInternalByteArrayNode getInternalByteArrayNode) {
+    TruffleString utf8 = switchEncodingNode.execute(value, TruffleString.Encoding.UTF_8);
+    InternalByteArray bytes = getInternalByteArrayNode.execute(utf8, TruffleString.Encoding.UTF_8);
+    out.writeQuoted(bytes.getArray(), bytes.getOffset(), bytes.getLength());
+  }
+
+  @Specialization
+  @TruffleBoundary
+  protected static void doJavaString(JXJsonBuffer out, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeQuoted(bytes, 0, bytes.length);
+  }
+
+  @Specialization
+  protected static void doNull(JXJsonBuffer out, @SuppressWarnings("unused") JSNull value) {
+    out.write(NULL);
+  }
+
+  @Specialization(guards = "object.getShape() == cachedShape", limit = "SHAPE_LIMIT")
+  protected static void doObjectCached(
+      JXJsonBuffer out,
+      JXObject object,
+      @Cached("object.getShape()") Shape cachedShape,
+      @Cached(value = "keysOf(cachedShape)", dimensions = 1) Object[] keys,
+      @Cached(value = "quoteKeys(keys)", dimensions = 1) byte[][] quotedKeys,
+      @CachedLibrary("object") DynamicObjectLibrary objectLibrary,
+      @Cached JXJsonWriteNode memberWriter) {
+    out.write(OBJECT_OPEN);
+    for (int i = 0; i < keys.length; i++) {
+      if (i > 0) {
+        out.write(MEMBER_SEP);
+      }
+      out.write(quotedKeys[i]);
+      memberWriter.execute(out, objectLibrary.getOrDefault(object, keys[i], JSNull.SINGLETON));
+    }
+    out.write(OBJECT_CLOSE);
+  }
+
+  @Specialization(replaces = "doObjectCached")
+  protected static void doObject(
+      JXJsonBuffer out,
+      JXObject object,
+      @CachedLibrary(limit = "LIBRARY_LIMIT") DynamicObjectLibrary objectLibrary,
+      @Cached JXJsonWriteNode keyWriter,
+      @Cached JXJsonWriteNode memberWriter) {
+    Object[] keys = objectLibrary.getKeyArray(object);
+    out.write(OBJECT_OPEN);
+    for (int i = 0; i < keys.length; i++) {
+      if (i > 0) {
+        out.write(MEMBER_SEP);
+      }
+      keyWriter.execute(out, keys[i]);
+      out.write(KEY_SEP);
+      memberWriter.execute(out, objectLibrary.getOrDefault(object, keys[i], JSNull.SINGLETON));
+    }
+    out.write(OBJECT_CLOSE);
+  }
+
+  @Specialization
+  protected static void doArray(
+      JXJsonBuffer out, JXArray array, @Cached JXJsonWriteNode elementWriter) {
+    int size = array.getArraySize();
+    out.write(ARRAY_OPEN);
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        out.write(ELEMENT_SEP);
+      }
+      elementWriter.execute(out, array.readArrayElement(i));
+    }
+    out.write(ARRAY_CLOSE);
+  }
+
+  /* Frozen literals: packed elements are written straight from their storage. */
+
+  @Specialization
+  protected static void doFrozenLongs(JXJsonBuffer out, JXFrozenArrayView.Longs array) {
+    int size = array.size();
+    out.write(ARRAY_OPEN);
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        out.write(ELEMENT_SEP);
+      }
+      out.writeLong(array.get(i));
+    }
+    out.write(ARRAY_CLOSE);
+  }
+
+  @Specialization
+  protected static void doFrozenDoubles(JXJsonBuffer out, JXFrozenArrayView.Doubles array) {
+    int size = array.size();
+    out.write(ARRAY_OPEN);
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        out.write(ELEMENT_SEP);
+      }
+      out.writeAscii(JXBigNumber.doubleToString(array.get(i)));
+    }
+    out.write(ARRAY_CLOSE);
+  }
+
+  @Specialization
+  protected static void doFrozenBooleans(JXJsonBuffer out, JXFrozenArrayView.Booleans array) {
+    int size = array.size();
+    out.write(ARRAY_OPEN);
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        out.write(ELEMENT_SEP);
+      }
+      out.write(array.get(i) ? TRUE : FALSE);
+    }
+    out.write(ARRAY_CLOSE);
+  }
+
+  @Specialization
+  protected static void doFrozenObjects(
+      JXJsonBuffer out, JXFrozenArrayView.Objects array, @Cached JXJsonWriteNode elementWriter) {
+    int size = array.size();
+    out.write(ARRAY_OPEN);
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        out.write(ELEMENT_SEP);
+      }
+      elementWriter.execute(out, array.get(i));
+    }
+    out.write(ARRAY_CLOSE);
+  }
+
+  /**
+   * Lazy views are drained one element at a time without asking for their size first, which for
+   * e.g. a filtered view would evaluate the whole pipeline before the first element is written.
+   */
+  @Specialization(limit = "LIBRARY_LIMIT")
+  protected void doLazyView(
+      JXJsonBuffer out,
+      JXLazyArrayView view,
+      @CachedLibrary("view") InteropLibrary views,
+      @Cached JXJsonWriteNode elementWriter) {
+    try {
+      out.write(ARRAY_OPEN);
+      for (long i = 0; views.isArrayElementReadable(view, i); i++) {
+        if (i > 0) {
+          out.write(ELEMENT_SEP);
+        }
+        elementWriter.execute(out, views.readArrayElement(view, i));
+      }
+      out.write(ARRAY_CLOSE);
+    } catch (InteropException e) {
+      throw new JXException("Cannot serialize array element: " + e.getMessage(), this);
+    }
+  }
+
+  @Specialization(guards = {"!isLazy(view)", "!isFrozen(view)"}, limit = "LIBRARY_LIMIT")
+  protected void doView(
+      JXJsonBuffer out,
+      AbstractArrayView view,
+      @CachedLibrary("view") InteropLibrary views,
+      @Cached JXJsonWriteNode elementWriter) {
+    writeArrayElements(out, view, views, elementWriter);
+  }
+
+  /** Lambdas that are ready to run are serialized as the value they evaluate to. */
+  @Specialization(guards = "executables.isExecutable(value)", limit = "LIBRARY_LIMIT")
+  protected void doExecutable(
+      JXJsonBuffer out,
+      Object value,
+      @CachedLibrary("value") InteropLibrary executables,
+      @Cached JXJsonWriteNode resultWriter) {
+    Object result;
+    try {
+      result = executables.execute(value);
+    } catch (InteropException e) {
+      throw new JXException("Cannot evaluate value for serialization: " + e.getMessage(), this);
+    }
+    resultWriter.execute(out, result);
+  }
+
+  @Specialization(
+      guards = {"!executables.isExecutable(value)", "interop.hasArrayElements(value)"},
+      limit = "LIBRARY_LIMIT")
+  protected void doForeignArray(
+      JXJsonBuffer out,
+      Object value,
+      @CachedLibrary("value") InteropLibrary executables,
+      @CachedLibrary("value") InteropLibrary interop,
+      @Cached JXJsonWriteNode elementWriter) {
+    writeArrayElements(out, value, interop, elementWriter);
+  }
+
+  @Fallback
+  protected void doUnsupported(@SuppressWarnings("unused") JXJsonBuffer out, Object value) {
+    throw new JXException("Cannot serialize value: " + value, this);
+  }
+
+  private void writeArrayElements(
+      JXJsonBuffer out, Object array, InteropLibrary interop, JXJsonWriteNode elementWriter) {
+    try {
+      long size = interop.getArraySize(array);
+      out.write(ARRAY_OPEN);
+      for (long i = 0; i < size; i++) {
+        if (i > 0) {
+          out.write(ELEMENT_SEP);
+        }
+        elementWriter.execute(out, interop.readArrayElement(array, i));
+      }
+      out.write(ARRAY_CLOSE);
+    } catch (InteropException e) {
+      throw new JXException("Cannot serialize array element: " + e.getMessage(), this);
+    }
+  }
+
+  static boolean isLazy(AbstractArrayView view) {
+    return view instanceof JXLazyArrayView;
+  }
+
+  static boolean isFrozen(AbstractArrayView view) {
+    return view instanceof JXFrozenArrayView;
+  }
+
+  @TruffleBoundary
+  static Object[] keysOf(Shape shape) {
+    return shape.getKeyList().toArray();
+  }
+
+  @TruffleBoundary
+  static byte[][] quoteKeys(Object[] keys) {
+    byte[][] quoted = new byte[keys.length][];
+    for (int i = 0; i < keys.length; i++) {
+      Object key = keys[i];
+      String name =
+          key instanceof TruffleString ? ((TruffleString) key).toJavaStringUncached() : key.toString();
+      quoted[i] = JXJsonBuffer.quoteKey(name);
+    }
+    return quoted;
+  }
+
+  /** {@link BigDecimal#toString()} is exact and always a valid JSON number. */
+  @TruffleBoundary
+  private static String bigDecimalToString(BigDecimal value) {
+    return value.toString();
+  }
+
+  private static byte[] ascii(String s) {
+    return s.getBytes(StandardCharsets.US_ASCII);
+  }
+}
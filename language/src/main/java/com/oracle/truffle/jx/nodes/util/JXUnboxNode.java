@@ -88,6 +88,11 @@ public abstract class JXUnboxNode extends JXExpressionNode {
     return value;
   }
 
+  @Specialization
+  protected static double fromDouble(double value) {
+    return value;
+  }
+
   @Specialization
   protected static JXBigNumber fromBigNumber(JXBigNumber value) {
     return value;
@@ -109,7 +114,7 @@ public abstract class JXUnboxNode extends JXExpressionNode {
       if (interop.fitsInLong(value)) {
         return interop.asLong(value);
       } else if (interop.fitsInDouble(value)) {
-        return (long) interop.asDouble(value);
+        return interop.asDouble(value);
       } else if (interop.isString(value)) {
         return interop.asTruffleString(value);
       } else if (interop.isBoolean(value)) {
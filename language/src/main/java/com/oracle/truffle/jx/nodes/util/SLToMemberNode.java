@@ -90,6 +90,11 @@ public abstract class SLToMemberNode extends Node {
     return String.valueOf(value);
   }
 
+  @Specialization
+  protected static String fromDouble(double value) {
+    return JXBigNumber.doubleToString(value);
+  }
+
   @Specialization
   @TruffleBoundary
   protected static String fromBigNumber(JXBigNumber value) {
@@ -103,6 +103,14 @@ public abstract class SLToTruffleStringNode extends Node {
     return fromLongNode.execute(value, JanivaLang.STRING_ENCODING, true);
   }
 
+  @Specialization
+  @TruffleBoundary
+  protected static TruffleString fromDouble(
+      double value, @Cached TruffleString.FromJavaStringNode fromJavaStringNode) {
+    return fromJavaStringNode.execute(
+        JXBigNumber.doubleToString(value), JanivaLang.STRING_ENCODING);
+  }
+
   @Specialization
   @TruffleBoundary
   protected static TruffleString fromBigNumber(
@@ -0,0 +1,243 @@
+package com.oracle.truffle.jx.parser;
+
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.NodeUtil;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.jx.nodes.JXBinaryNode;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.nodes.JXStatementNode;
+import com.oracle.truffle.jx.nodes.controlflow.JXIfNode;
+import com.oracle.truffle.jx.nodes.core.JXAttributeAccessNode;
+import com.oracle.truffle.jx.nodes.core.JXAttributeBindingNode;
+import com.oracle.truffle.jx.nodes.core.JXAttributeBindingNodeGen;
+import com.oracle.truffle.jx.nodes.core.JXLambdaNode;
+import com.oracle.truffle.jx.nodes.core.JXLambdaSlotAccessNode;
+import com.oracle.truffle.jx.nodes.core.JXLatentBindingNode;
+import com.oracle.truffle.jx.nodes.core.JXLatentReadNode;
+import com.oracle.truffle.jx.nodes.core.JXModuleReadNode;
+import com.oracle.truffle.jx.nodes.core.JXSlotAccessNode;
+import com.oracle.truffle.jx.nodes.core.JXSlotAccessNodeGen;
+import com.oracle.truffle.jx.nodes.expression.JXFeedValueNode;
+import com.oracle.truffle.jx.nodes.expression.JXLogicalNotNode;
+import com.oracle.truffle.jx.nodes.expression.JXParenExpressionNode;
+import com.oracle.truffle.jx.nodes.expression.JXShortCircuitNode;
+import com.oracle.truffle.jx.nodes.expression.value.JXConstantNode;
+import com.oracle.truffle.jx.nodes.util.JXUnboxNode;
+import com.oracle.truffle.jx.runtime.JXStrings;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Common subexpression elimination over the bindings of an object literal. Values are immutable
+ * and lambdas have no side effects, so pure expressions that are structurally identical evaluate to
+ * the same value within one evaluation of the literal. Each of them is bound to a synthetic latent
+ * attribute, evaluated by need like other latents (see {@link JXLatentBindingNode}), and all its
+ * occurrences become reads of it.
+ *
+ * <p>Only expressions of the literal itself are looked at: nested literals are scopes of their own,
+ * which were handled when they closed. Expressions reading a latent bound more than once in the
+ * literal are left alone, as their value depends on where they are.
+ */
+final class CommonSubexpressions {
+
+  /* Not an identifier, so no reference in the source can resolve to it. */
+  private static final String NAME_PREFIX = "%cse";
+
+  private final MetaStack metaStack;
+
+  /** Structural key of the nodes visited, {@code null} for expressions that are not pure. */
+  private final Map<Node, Object> keys = new IdentityHashMap<>();
+
+  private final Map<Node, Node> parents = new IdentityHashMap<>();
+  /** Index of the statement each candidate is part of. */
+  private final Map<Node, Integer> owners = new IdentityHashMap<>();
+  /** Candidates by key, in evaluation order. */
+  private final Map<Object, List<Node>> candidates = new LinkedHashMap<>();
+  /** Occurrences replaced by a read, which are no longer part of the tree. */
+  private final Set<Node> replaced = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  private int hoistedCount;
+  private int removedNodes;
+
+  CommonSubexpressions(MetaStack metaStack) {
+    this.metaStack = metaStack;
+  }
+
+  /** @return number of nodes removed by {@link #eliminate} */
+  int getRemovedNodes() {
+    return removedNodes;
+  }
+
+  /**
+   * @param statements bindings of the object literal being closed, in evaluation order
+   * @return {@code statements} with the synthetic latents inserted before their first use
+   */
+  JXStatementNode[] eliminate(JXStatementNode[] statements) {
+    for (int i = 0; i < statements.length; i++) {
+      if (statements[i] instanceof JXAttributeBindingNode
+          || statements[i] instanceof JXLatentBindingNode) {
+        visit(statements[i], null, i);
+      }
+    }
+    // largest first, so an expression is hoisted as a whole rather than piece by piece
+    List<List<Node>> repeated =
+        candidates.values().stream()
+            .filter(occurrences -> occurrences.size() > 1)
+            .sorted(
+                Comparator.comparingInt((List<Node> o) -> NodeUtil.countNodes(o.get(0)))
+                    .reversed())
+            .collect(Collectors.toList());
+    if (repeated.isEmpty()) {
+      return statements;
+    }
+    Map<Integer, List<JXStatementNode>> hoisted = new HashMap<>();
+    for (List<Node> occurrences : repeated) {
+      List<Node> live =
+          occurrences.stream().filter(o -> !isReplaced(o)).collect(Collectors.toList());
+      if (live.size() > 1) {
+        int owner = live.stream().mapToInt(owners::get).min().getAsInt();
+        hoisted.computeIfAbsent(owner, k -> new ArrayList<>()).add(hoist(live));
+      }
+    }
+    List<JXStatementNode> result = new ArrayList<>();
+    for (int i = 0; i < statements.length; i++) {
+      result.addAll(hoisted.getOrDefault(i, Collections.emptyList()));
+      result.add(statements[i]);
+    }
+    return result.toArray(new JXStatementNode[0]);
+  }
+
+  /**
+   * Binds the first occurrence to a new latent and replaces all of them by reads of it. The reads
+   * the other occurrences made are released, they are only made once now.
+   */
+  private JXLatentBindingNode hoist(List<Node> occurrences) {
+    JXExpressionNode kept = (JXExpressionNode) occurrences.get(0);
+    TruffleString name = JXStrings.fromJavaString(NAME_PREFIX + hoistedCount++);
+    int slot = metaStack.requestForLatentSlot(name, kept);
+    JXAttributeBindingNode binding = JXAttributeBindingNodeGen.create(kept, slot, true);
+    JXLatentBindingNode latent = new JXLatentBindingNode(binding);
+    latent.setByNeed(true);
+    for (Node occurrence : occurrences) {
+      NodeUtil.replaceChild(
+          parents.get(occurrence),
+          occurrence,
+          new JXLatentReadNode(latent, JXSlotAccessNodeGen.create(slot, name)));
+      metaStack.markReferenced(slot);
+      if (occurrence != kept) {
+        replaced.add(occurrence);
+        metaStack.release(occurrence);
+        removedNodes += NodeUtil.countNodes(occurrence);
+      }
+    }
+    // smaller expressions within the kept one can still be hoisted
+    parents.put(kept, binding);
+    return latent;
+  }
+
+  private boolean isReplaced(Node node) {
+    for (Node n = node; n != null; n = parents.get(n)) {
+      if (replaced.contains(n)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void visit(Node node, Node parent, int owner) {
+    parents.put(node, parent);
+    boolean binding = node instanceof JXAttributeBindingNode || node instanceof JXLatentBindingNode;
+    if (!binding && !isOperation(node)) {
+      return;
+    }
+    Object key = binding ? null : keyOf(node);
+    if (key != null && !isTrivial(node)) {
+      candidates.computeIfAbsent(key, k -> new ArrayList<>()).add(node);
+      owners.put(node, owner);
+    }
+    for (Node child : node.getChildren()) {
+      visit(child, node, owner);
+    }
+  }
+
+  private Object keyOf(Node node) {
+    if (keys.containsKey(node)) {
+      return keys.get(node);
+    }
+    Object key = computeKey(node);
+    keys.put(node, key);
+    return key;
+  }
+
+  private Object computeKey(Node node) {
+    if (node instanceof JXConstantNode) {
+      return Arrays.asList(node.getClass(), ((JXConstantNode) node).getConstantValue());
+    }
+    if (node instanceof JXLatentReadNode) {
+      return slotKey(((JXLatentReadNode) node).getRead().getSlot());
+    }
+    if (node instanceof JXSlotAccessNode) {
+      return slotKey(((JXSlotAccessNode) node).getSlot());
+    }
+    if (node instanceof JXLambdaSlotAccessNode) {
+      return Arrays.asList(JXLambdaSlotAccessNode.class, ((JXLambdaSlotAccessNode) node).getIndex());
+    }
+    if (node instanceof JXModuleReadNode) {
+      return Arrays.asList(JXModuleReadNode.class, ((JXModuleReadNode) node).getName());
+    }
+    if (node instanceof JXLambdaNode) {
+      return Arrays.asList(JXLambdaNode.class, ((JXLambdaNode) node).getLambdaTemplate());
+    }
+    if (!isOperation(node)) {
+      return null;
+    }
+    List<Object> key = new ArrayList<>();
+    key.add(node.getClass());
+    for (Node child : node.getChildren()) {
+      Object childKey = keyOf(child);
+      if (childKey == null) {
+        return null;
+      }
+      key.add(childKey);
+    }
+    return key;
+  }
+
+  private Object slotKey(int slot) {
+    return metaStack.isRebound(slot) ? null : Arrays.asList(JXSlotAccessNode.class, slot);
+  }
+
+  /** Pure expressions whose value only depends on their operands. */
+  private static boolean isOperation(Node node) {
+    return node instanceof JXBinaryNode
+        || node instanceof JXLogicalNotNode
+        || node instanceof JXShortCircuitNode
+        || node instanceof JXUnboxNode
+        || node instanceof JXParenExpressionNode
+        || node instanceof JXAttributeAccessNode
+        || node instanceof JXIfNode
+        || node instanceof JXFeedValueNode;
+  }
+
+  /** Expressions no cheaper to read from a slot than to evaluate. */
+  private static boolean isTrivial(Node node) {
+    if (node instanceof JXUnboxNode || node instanceof JXParenExpressionNode) {
+      for (Node child : node.getChildren()) {
+        if (!isTrivial(child)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return !isOperation(node);
+  }
+}
@@ -0,0 +1,49 @@
+package com.oracle.truffle.jx.parser;
+
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.nodes.expression.value.JXBoolLiteralNode;
+import com.oracle.truffle.jx.nodes.expression.value.JXConstantNode;
+import com.oracle.truffle.jx.nodes.expression.value.JXNumberLiteralNode;
+import com.oracle.truffle.jx.nodes.expression.value.JXStringLiteralNode;
+
+/**
+ * Folds pure expressions over literals while {@link JXNodeFactory} builds the AST. A candidate is
+ * built as usual and executed once; if that succeeds it is replaced by a literal of the result.
+ * Expressions that fail are kept, so the error is still reported when, and if, they run.
+ */
+public final class ConstantFolder {
+
+  private ConstantFolder() {}
+
+  public static boolean isConstant(JXExpressionNode node) {
+    return node instanceof JXConstantNode;
+  }
+
+  /**
+   * @param node an expression whose operands are all {@link #isConstant constant}
+   * @return a literal of the value of {@code node}, or {@code node} itself if it cannot be folded
+   */
+  public static JXExpressionNode fold(JXExpressionNode node) {
+    Object value;
+    try {
+      // literals never look at the frame
+      value = node.executeGeneric(null);
+    } catch (RuntimeException e) {
+      return node;
+    }
+    JXExpressionNode literal = literalOf(value);
+    return literal == null ? node : literal;
+  }
+
+  /** @return a literal node of {@code value}, or {@code null} if it has no literal form */
+  public static JXExpressionNode literalOf(Object value) {
+    if (value instanceof Boolean) {
+      return new JXBoolLiteralNode((Boolean) value);
+    }
+    if (value instanceof TruffleString) {
+      return new JXStringLiteralNode((TruffleString) value);
+    }
+    return JXNumberLiteralNode.fromValue(value);
+  }
+}
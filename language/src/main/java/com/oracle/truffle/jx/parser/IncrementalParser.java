@@ -0,0 +1,288 @@
+package com.oracle.truffle.jx.parser;
+
+import com.oracle.truffle.api.nodes.NodeUtil;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.jx.JanivaLang;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.nodes.JXRootNode;
+import com.oracle.truffle.jx.nodes.core.JXStdoutNode;
+import com.oracle.truffle.jx.nodes.core.JXStreamingStdoutNode;
+import com.oracle.truffle.jx.nodes.expression.value.JXFrozenValueNode;
+import com.oracle.truffle.jx.runtime.JXModule;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.antlr.v4.runtime.Token;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the last version of each parsed source, by location and alias, so that a changed version,
+ * e.g. the next keystroke in an editor or a save in watch mode, is only parsed again where it
+ * changed. See {@link com.oracle.truffle.jx.JXOptions#IncrementalParsing}.
+ *
+ * <p>The change is what lies between the longest common prefix and suffix of the two versions. From
+ * the smallest to the largest, the part parsed again is:
+ *
+ * <ul>
+ *   <li>the plain JSON literal containing the change, if it still is one of the same extent (see
+ *       {@link JsonScanner}). Its frozen node is replaced in a copy of the previous AST. It has no
+ *       slots, so the frame descriptor and all bindings are kept as they are;
+ *   <li>the root value, if the change is within it. Namespace and lambdas are kept, imports are
+ *       looked up again, and the root value gets a new scope tree and frame of its own. Lambdas are
+ *       not defined again, nor their bodies built again;
+ *   <li>the whole source otherwise.
+ * </ul>
+ *
+ * <p>Other objects and lists are not reparsed on their own: slots, latents, shared subexpressions
+ * and inlined lambdas of an object literal depend on all of the root value, which is parsed as a
+ * whole then.
+ */
+public final class IncrementalParser {
+
+  public static final int DEFAULT_CAPACITY = 64;
+
+  private static final Logger logger = LoggerFactory.getLogger(IncrementalParser.class);
+
+  /** A plain JSON literal scanned as a whole, from {@code start} to {@code stop} inclusive. */
+  static final class Literal {
+    final int start;
+    final int stop;
+    final JXFrozenValueNode node;
+
+    Literal(int start, int stop, JXFrozenValueNode node) {
+      this.start = start;
+      this.stop = stop;
+      this.node = node;
+    }
+  }
+
+  /** A parsed version of a source, with what is needed to parse the next one in part. */
+  private static final class Version {
+    private final CharSequence chars;
+    private final JXRootNode root;
+    /* Where the root value starts, -1 if it was never reached. */
+    private final int rootStart;
+    private final int rootLine;
+    private final int rootColumn;
+    private final TruffleString namespace;
+    private final Map<TruffleString, TruffleString> importedNames;
+    private final Map<TruffleString, JXModule> importedModules;
+    private final List<Literal> literals;
+
+    private Version(
+        CharSequence chars,
+        JXRootNode root,
+        Token rootStart,
+        TruffleString namespace,
+        Map<TruffleString, TruffleString> importedNames,
+        Map<TruffleString, JXModule> importedModules,
+        List<Literal> literals) {
+      this.chars = chars;
+      this.root = root;
+      this.rootStart = rootStart == null ? -1 : rootStart.getStartIndex();
+      this.rootLine = rootStart == null ? 0 : rootStart.getLine();
+      this.rootColumn = rootStart == null ? 0 : rootStart.getCharPositionInLine();
+      this.namespace = namespace;
+      this.importedNames = importedNames;
+      this.importedModules = importedModules;
+      this.literals = literals;
+    }
+
+    /** The next version, with the header of this one. */
+    private Version(Version previous, CharSequence chars, JXRootNode root, List<Literal> literals) {
+      this.chars = chars;
+      this.root = root;
+      this.rootStart = previous.rootStart;
+      this.rootLine = previous.rootLine;
+      this.rootColumn = previous.rootColumn;
+      this.namespace = previous.namespace;
+      this.importedNames = previous.importedNames;
+      this.importedModules = previous.importedModules;
+      this.literals = literals;
+    }
+  }
+
+  private final Map<String, Version> versions;
+
+  public IncrementalParser(int capacity) {
+    this.versions =
+        new LinkedHashMap<String, Version>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Version> eldest) {
+            return size() > capacity;
+          }
+        };
+  }
+
+  /** Not thread safe, the language guards it like the parsed source cache. */
+  public RootNode parse(JanivaLang language, Source source, TruffleString nsAlias) {
+    String location =
+        (source.getPath() == null ? source.getName() : source.getPath())
+            + "@"
+            + (nsAlias == null ? "" : nsAlias.toJavaStringUncached());
+    Version previous = versions.get(location);
+    Version next = null;
+    if (previous != null) {
+      CharSequence chars = source.getCharacters();
+      int prefix = 0;
+      int max = Math.min(previous.chars.length(), chars.length());
+      while (prefix < max && previous.chars.charAt(prefix) == chars.charAt(prefix)) {
+        prefix++;
+      }
+      int suffix = 0;
+      while (suffix < max - prefix
+          && previous.chars.charAt(previous.chars.length() - 1 - suffix)
+              == chars.charAt(chars.length() - 1 - suffix)) {
+        suffix++;
+      }
+      next = reparseLiteral(language, source, previous, prefix, suffix);
+      if (next == null && previous.rootStart >= 0 && prefix > previous.rootStart) {
+        next = reparseRootValue(language, source, previous);
+      }
+    }
+    if (next == null) {
+      next = parseAll(language, source, nsAlias);
+    }
+    versions.put(location, next);
+    return next.root;
+  }
+
+  /**
+   * Rescans the plain JSON literal around the change and puts its value in place of the previous
+   * one, in a copy of the previous AST.
+   *
+   * @param prefix length of what precedes the change in both versions
+   * @param suffix length of what follows the change in both versions
+   * @return {@code null} if the change is not within such a literal, or the literal is not one of
+   *     the same extent any more
+   */
+  private static Version reparseLiteral(
+      JanivaLang language, Source source, Version previous, int prefix, int suffix) {
+    CharSequence chars = source.getCharacters();
+    int delta = chars.length() - previous.chars.length();
+    int changeEnd = previous.chars.length() - suffix;
+    Literal changed = null;
+    for (Literal literal : previous.literals) {
+      // the brackets enclosing the literal are left as they are
+      if (literal.start < prefix && changeEnd <= literal.stop) {
+        changed = literal;
+        break;
+      }
+    }
+    if (changed == null) {
+      return null;
+    }
+    JsonScanner scanner = new JsonScanner(language, chars);
+    Object value = scanner.scan(changed.start);
+    if (value == null || scanner.getEnd() != changed.stop + 1 + delta) {
+      return null;
+    }
+
+    JXExpressionNode body = previous.root.getBodyNode();
+    JXStdoutNode streamed = null;
+    if (body instanceof JXStreamingStdoutNode) {
+      // it refers to its literal by a field of its own, which a copy would not follow
+      streamed = ((JXStreamingStdoutNode) body).getStdoutNode();
+      body = streamed;
+    }
+    List<JXFrozenValueNode> frozen = NodeUtil.findAllNodeInstances(body, JXFrozenValueNode.class);
+    int index = -1;
+    for (int i = 0; i < frozen.size(); i++) {
+      if (frozen.get(i).getConstantValue() == changed.node.getConstantValue()) {
+        if (index >= 0) {
+          // copied, e.g. as an argument of an inlined lambda, all copies would have to change
+          return null;
+        }
+        index = i;
+      }
+    }
+    if (index < 0) {
+      // folded into another constant, or replaced by a shared subexpression
+      return null;
+    }
+
+    JXExpressionNode copy = LambdaInliner.copy(body, slot -> slot, null);
+    // the copy rebuilds bindings, whose children are only adopted by them now
+    copy.adoptChildren();
+    List<JXFrozenValueNode> copied = NodeUtil.findAllNodeInstances(copy, JXFrozenValueNode.class);
+    assert copied.size() == frozen.size();
+    JXFrozenValueNode replacement = new JXFrozenValueNode(value);
+    if (copied.get(index) == copy) {
+      copy = replacement;
+    } else {
+      copied.get(index).replace(replacement);
+    }
+    if (streamed != null) {
+      copy = new JXStreamingStdoutNode((JXStdoutNode) copy);
+    }
+
+    Map<JXFrozenValueNode, JXFrozenValueNode> nodes = new IdentityHashMap<>();
+    for (int i = 0; i < frozen.size(); i++) {
+      nodes.put(frozen.get(i), copied.get(i));
+    }
+    List<Literal> literals = new ArrayList<>();
+    for (Literal literal : previous.literals) {
+      if (literal == changed) {
+        literals.add(new Literal(literal.start, literal.stop + delta, replacement));
+      } else if (nodes.containsKey(literal.node)) {
+        int shift = literal.start > changed.start ? delta : 0;
+        literals.add(
+            new Literal(literal.start + shift, literal.stop + shift, nodes.get(literal.node)));
+      }
+    }
+    JXRootNode root =
+        new JXRootNode(
+            language, previous.root.getFrameDescriptor(), copy, previous.root.getTSName());
+    logger.debug("Reparsed a JSON literal of {}", source.getName());
+    return new Version(previous, chars, root, literals);
+  }
+
+  /**
+   * Parses the root value of {@code source} alone, with the header of the previous version.
+   *
+   * @return {@code null} if an import changed since, which the lambdas of the header would not see
+   */
+  private static Version reparseRootValue(JanivaLang language, Source source, Version previous) {
+    JXNodeFactory[] factory = new JXNodeFactory[1];
+    RootNode root =
+        JanivaLangParser.parseRootValue(
+            language,
+            source,
+            () -> {
+              factory[0] = new JXNodeFactory(language, source, previous.namespace);
+              factory[0].startRootValueOnly(previous.importedNames);
+              return factory[0];
+            },
+            previous.rootStart,
+            previous.rootLine,
+            previous.rootColumn);
+    if (!factory[0].getImportedModules().equals(previous.importedModules)) {
+      return null;
+    }
+    logger.debug("Reparsed the root value of {}", source.getName());
+    return new Version(
+        previous, source.getCharacters(), (JXRootNode) root, factory[0].getLiterals());
+  }
+
+  private static Version parseAll(JanivaLang language, Source source, TruffleString nsAlias) {
+    // the last factory is the one whose parse succeeded
+    JXNodeFactory[] factory = new JXNodeFactory[1];
+    RootNode root =
+        JanivaLangParser.parseSL(
+            language, source, () -> factory[0] = new JXNodeFactory(language, source, nsAlias));
+    logger.debug("Parsed {} in full", source.getName());
+    return new Version(
+        source.getCharacters(),
+        (JXRootNode) root,
+        factory[0].getRootStart(),
+        factory[0].getNamespace(),
+        new LinkedHashMap<>(factory[0].getImportedNames()),
+        new LinkedHashMap<>(factory[0].getImportedModules()),
+        factory[0].getLiterals());
+  }
+}
@@ -40,7 +40,7 @@
  */
 package com.oracle.truffle.jx.parser;
 
-import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.frame.FrameSlotKind;
 import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.strings.TruffleString;
@@ -53,22 +53,27 @@ import com.oracle.truffle.jx.nodes.JXRootNode;
 import com.oracle.truffle.jx.nodes.JXStatementNode;
 import com.oracle.truffle.jx.nodes.core.*;
 import com.oracle.truffle.jx.nodes.expression.JXFeedValueNode;
-import com.oracle.truffle.jx.nodes.expression.JXFeedValueNodeGen;
 import com.oracle.truffle.jx.nodes.expression.value.JXBoolLiteralNode;
+import com.oracle.truffle.jx.nodes.expression.value.JXConstantNode;
+import com.oracle.truffle.jx.nodes.expression.value.JXFrozenValueNode;
 import com.oracle.truffle.jx.nodes.expression.value.JXNumberLiteralNode;
 import com.oracle.truffle.jx.nodes.expression.value.JXStringLiteralNode;
 import com.oracle.truffle.jx.nodes.util.JXUnboxNodeGen;
 import com.oracle.truffle.jx.parser.exceptions.JXSyntaxError;
+import com.oracle.truffle.jx.runtime.JXModule;
 import com.oracle.truffle.jx.runtime.JXStrings;
+import com.oracle.truffle.jx.runtime.view.JXFrozenArrayView;
 import com.oracle.truffle.jx.statics.lambda.BuiltInLambda;
 import com.oracle.truffle.jx.statics.lambda.LambdaRegistry;
 import com.oracle.truffle.jx.statics.lambda.LambdaTemplate;
 import com.xmbsmdsj.janiva.SourceFinder;
-import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 import org.antlr.v4.runtime.Parser;
 import org.antlr.v4.runtime.Token;
 import org.slf4j.Logger;
@@ -91,23 +96,34 @@ public class JXNodeFactory {
 
   /* State while parsing a source unit. */
   private final Source source;
-  private final TruffleString sourceString;
+  /** Characters of {@link #source}, which identifiers and literals are taken from one by one. */
+  private final CharSequence sourceChars;
   private TruffleString namespace;
   private JXExpressionNode rootNode;
 
   private final MetaStack metaStack = new MetaStack();
   private final JanivaLang language;
 
-  private OutputStream rootOutPutStream = null;
-
   private LambdaTemplate lambdaTemplate;
-
-  private List<JXStatementNode> imports = new ArrayList<>();
+  private final LambdaInliner inliner = new LambdaInliner(metaStack);
+  /** Nodes removed by common subexpression elimination, see {@link CommonSubexpressions}. */
+  private int eliminatedNodes;
+
+  private final Map<TruffleString, JXModule> importedModules = new HashMap<>();
+  /** Names the imports were made by, by alias. */
+  private final Map<TruffleString, TruffleString> importedNames = new LinkedHashMap<>();
+  /** Shared by the lambdas of this source whose bodies are deferred. */
+  private LazyLambdaBody.Unit deferredUnit;
+  /** Scans the JSON literals of a replayed trace, see {@link #createFrozenValue}. */
+  private JsonScanner jsonScanner;
+  /* Where the root value starts, and the plain JSON literals in it, see IncrementalParser. */
+  private Token rootStart;
+  private final List<IncrementalParser.Literal> literals = new ArrayList<>();
 
   public JXNodeFactory(JanivaLang language, Source source, TruffleString nsAlias) {
     this.language = language;
     this.source = source;
-    this.sourceString = JXStrings.fromJavaString(source.getCharacters().toString());
+    this.sourceChars = source.getCharacters();
     this.namespace = nsAlias == null ? defaultNamespace : nsAlias;
   }
 
@@ -120,35 +136,22 @@ public class JXNodeFactory {
     }
   }
 
-  public void setRootStream(Token streamName) {
-    if (streamName == null) return;
-    switch (streamName.getText()) {
-      case "stdout":
-        if (this.rootOutPutStream != null) {
-          throw new RuntimeException("Only one root stream can be assigned");
-        }
-        this.rootOutPutStream = System.out;
-        break;
-      default:
-        throw new RuntimeException("Illegal stream name");
-    }
-  }
-
+  /**
+   * A root {@code @stdout} of a literal can write the literal while it is evaluated, see {@link
+   * JXStreamingStdoutNode}.
+   */
   public void registerRootNode(JXExpressionNode node) {
+    if (node instanceof JXStdoutNode
+        && ((JXStdoutNode) node).getChild() instanceof JXStreamableNode) {
+      node = new JXStreamingStdoutNode((JXStdoutNode) node);
+    }
     this.rootNode = node;
   }
 
   public RootNode getRootNode() {
+    logger.debug("Common subexpression elimination removed {} nodes", eliminatedNodes);
     return new JXRootNode(
-        language, metaStack.buildRoot(), rootNode, JXStrings.fromJavaString("#root")) {
-
-      @Override
-      public Object execute(VirtualFrame frame) {
-        imports.forEach(i -> i.executeVoid(frame));
-        Object res = super.execute(frame);
-        return res;
-      }
-    };
+        language, metaStack.buildRoot(), rootNode, JXStrings.fromJavaString("#root"));
   }
 
   public JXExpressionNode createDecimal(Token whole, Token dec) {
@@ -173,13 +176,20 @@ public class JXNodeFactory {
     if (leftNode == null || rightNode == null) {
       return null;
     }
-    final JXExpressionNode leftUnboxed = JXUnboxNodeGen.create(leftNode);
-    final JXExpressionNode rightUnboxed = JXUnboxNodeGen.create(rightNode);
+    final JXExpressionNode leftUnboxed = unboxIfNeeded(leftNode);
+    final JXExpressionNode rightUnboxed = unboxIfNeeded(rightNode);
 
     final JXExpressionNode result;
 
     result = JXBinaryNode.create(opToken, leftUnboxed, rightUnboxed);
     result.addExpressionTag();
+    if (ConstantFolder.isConstant(leftNode) && ConstantFolder.isConstant(rightNode)) {
+      JXExpressionNode folded = ConstantFolder.fold(result);
+      if (folded != result) {
+        folded.addExpressionTag();
+        return folded;
+      }
+    }
 
     return result;
   }
@@ -203,8 +213,8 @@ public class JXNodeFactory {
       fromIndex += 1;
       length -= 2;
     }
-    return sourceString.substringByteIndexUncached(
-        fromIndex * 2, length * 2, JanivaLang.STRING_ENCODING, true);
+    return JXStrings.fromJavaString(
+        sourceChars.subSequence(fromIndex, fromIndex + length).toString());
   }
 
   public void startObject() {
@@ -212,19 +222,95 @@ public class JXNodeFactory {
     metaStack.startObject();
   }
 
-  public JXObjectAssemblyNode endObject(List<JXStatementNode> nodes) {
+  /**
+   * Close an object literal. The key set is final once the scope closes, so keys are ordered here
+   * by slot index (i.e. declaration order) and the assembly node gets a fixed layout to store into.
+   * A literal made of constants only is frozen instead, see {@link #freezeObject}.
+   */
+  public JXExpressionNode endObject(List<JXStatementNode> nodes) {
     // logger.debug("End object");
+    JXStatementNode[] bindings = eliminateCommonSubexpressions(resolveLatents(nodes));
+    JXExpressionNode frozen = freezeObject(bindings);
+    if (frozen != null) {
+      metaStack.close();
+      return frozen;
+    }
+    boolean[] unreferenced = new boolean[bindings.length];
+    for (int i = 0; i < bindings.length; i++) {
+      unreferenced[i] =
+          bindings[i] instanceof JXAttributeBindingNode
+              && !metaStack.isReferenced(((JXAttributeBindingNode) bindings[i]).getSlot());
+    }
     JXObjectAssemblyNode res =
         new JXObjectAssemblyNode(
-            nodes,
+            bindings,
             metaStack.locals().entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
                 .map(e -> JXSlotAccessNodeGen.create(e.getValue(), e.getKey()))
-                .collect(Collectors.toList()),
+                .toArray(JXSlotAccessNode[]::new),
+            unreferenced,
             JXNewObjectBuiltinFactory.getInstance().createNode());
     metaStack.close();
     return res;
   }
 
+  /**
+   * Latents are only visible within their object literal, so all their reads are known when it
+   * closes. Latents nothing reads are dropped, last first, so that latents only read by dropped
+   * ones go as well; the others are evaluated by need where {@link MetaStack#canDefer} allows it.
+   */
+  private JXStatementNode[] resolveLatents(List<JXStatementNode> nodes) {
+    LinkedList<JXStatementNode> live = new LinkedList<>();
+    for (int i = nodes.size() - 1; i >= 0; i--) {
+      JXStatementNode node = nodes.get(i);
+      if (node instanceof JXLatentBindingNode) {
+        JXLatentBindingNode latent = (JXLatentBindingNode) node;
+        if (!metaStack.isReferenced(latent.getSlot())) {
+          metaStack.release(latent.getVal());
+          continue;
+        }
+        latent.setByNeed(metaStack.canDefer(latent));
+      }
+      live.addFirst(node);
+    }
+    return live.toArray(new JXStatementNode[0]);
+  }
+
+  private JXStatementNode[] eliminateCommonSubexpressions(JXStatementNode[] bindings) {
+    CommonSubexpressions cse = new CommonSubexpressions(metaStack);
+    JXStatementNode[] res = cse.eliminate(bindings);
+    eliminatedNodes += cse.getRemovedNodes();
+    return res;
+  }
+
+  /**
+   * Nothing outside of an object literal can refer to its attributes, and attributes referring to
+   * each other are not constants, so an object whose members are all constants can be evaluated
+   * here, once, into a frozen object shared by all evaluations.
+   *
+   * @return a constant of the frozen object, or {@code null} if some member is not a constant
+   */
+  private JXExpressionNode freezeObject(JXStatementNode[] bindings) {
+    Map<Integer, TruffleString> keys = new HashMap<>();
+    for (Map.Entry<TruffleString, Integer> local : metaStack.locals().entrySet()) {
+      keys.put(local.getValue(), local.getKey());
+    }
+    TruffleString[] names = new TruffleString[bindings.length];
+    Object[] values = new Object[bindings.length];
+    for (int i = 0; i < bindings.length; i++) {
+      if (!(bindings[i] instanceof JXAttributeBindingNode)) {
+        return null;
+      }
+      JXAttributeBindingNode binding = (JXAttributeBindingNode) bindings[i];
+      if (binding.isLatent() || !ConstantFolder.isConstant(binding.getVal())) {
+        return null;
+      }
+      names[i] = keys.get(binding.getSlot());
+      values[i] = ((JXConstantNode) binding.getVal()).getConstantValue();
+    }
+    return new JXFrozenValueNode(language.createFrozenObject(names, values));
+  }
+
   public void startArray() {
     // logger.debug("Start array");
     // Create one scope, but this time is for list
@@ -236,8 +322,16 @@ public class JXNodeFactory {
     metaStack.appendArray(n);
   }
 
+  /** Close an array literal; one made of constants only is frozen, like objects. */
   public JXExpressionNode closeArray() {
     // logger.debug("Close array");
+    List<JXExpressionNode> elements = metaStack.arrayNodes();
+    if (elements.stream().allMatch(ConstantFolder::isConstant)) {
+      Object[] values =
+          elements.stream().map(e -> ((JXConstantNode) e).getConstantValue()).toArray();
+      metaStack.close();
+      return new JXFrozenValueNode(JXFrozenArrayView.of(values));
+    }
 
     JXExpressionNode res =
         new JXArrayAssemblyNode(
@@ -247,6 +341,27 @@ public class JXNodeFactory {
     return res;
   }
 
+  /**
+   * A literal of plain JSON, frozen by {@link JsonScanner} as the lexer met it, to what {@link
+   * #endObject} and {@link #closeArray} would have frozen it. A token of a replayed {@link
+   * ParseTrace} only tells where the literal is, so it is scanned again.
+   */
+  public JXExpressionNode createFrozenValue(Token json) {
+    if (json instanceof JsonValueToken) {
+      JXFrozenValueNode node = new JXFrozenValueNode(((JsonValueToken) json).getValue());
+      literals.add(new IncrementalParser.Literal(json.getStartIndex(), json.getStopIndex(), node));
+      return node;
+    }
+    if (jsonScanner == null) {
+      jsonScanner = new JsonScanner(language, sourceChars);
+    }
+    Object value = jsonScanner.scan(json.getStartIndex());
+    if (value == null) {
+      throw new IllegalStateException("Not a JSON literal at " + json.getStartIndex());
+    }
+    return new JXFrozenValueNode(value);
+  }
+
   /**
    * Import code from a given path, and parse it to an AST
    *
@@ -254,26 +369,43 @@ public class JXNodeFactory {
    *     directory tree like this | |-a.janiva |-b/ |--c.janiva |--d.janiva by using "b.c", you can
    *     refer to b/c.janiva from a.janiva.
    */
-  public RootNode importFile(Token importedName, Token alias) {
-    TruffleString ts = asTruffleString(importedName, true);
-    TruffleString nsAlias = asTruffleString(alias, false);
-    return JanivaLangParser.parseSL(language, SourceFinder.findImported(source.getPath(), ts), nsAlias);
+  public JXModule importFile(Token importedName, Token alias) {
+    return importModule(asTruffleString(importedName, true), asTruffleString(alias, false));
+  }
+
+  private JXModule importModule(TruffleString importedName, TruffleString nsAlias) {
+    importedNames.put(nsAlias, importedName);
+    return language.lookupModule(
+        SourceFinder.findImported(source.getPath(), importedName), nsAlias);
   }
 
   /**
-   * Bind imported ast to a global attribute
+   * Bind imported module to a global attribute. The module is evaluated lazily, when the attribute
+   * is first read.
    *
    * @param valName global attribute name
-   * @param imported imported ast
-   * @return a statement node that will be executed at the beginning of root node
+   * @param imported imported module
    */
-  public JXStatementNode bindImport(Token valName, RootNode imported) {
+  public void bindImport(Token valName, JXModule imported) {
     Reserved.validate(valName);
     TruffleString ts = asTruffleString(valName, false);
-    int slot = metaStack.requestForGlobal(ts);
-    JXStatementNode newImport = new JXImportBindingNode(slot, imported);
-    this.imports.add(newImport);
-    return newImport;
+    metaStack.requestForGlobal(ts);
+    this.importedModules.put(ts, imported);
+  }
+
+  /** Read a resolved attribute, which is either a plain slot or an imported global. */
+  private JXExpressionNode readSlot(int slot, TruffleString ts) {
+    JXModule module = importedModules.get(ts);
+    if (module != null && metaStack.resolvesToGlobal(ts)) {
+      return new JXModuleReadNode(ts, module);
+    }
+    metaStack.markReferenced(slot);
+    JXSlotAccessNode read = JXSlotAccessNodeGen.create(slot, ts);
+    JXLatentBindingNode latent = metaStack.lookupLatentBinding(ts);
+    if (latent != null && latent.getSlot() == slot) {
+      return new JXLatentReadNode(latent, read);
+    }
+    return read;
   }
 
   public JXStatementNode bindLatent(Token valName, JXExpressionNode val, boolean isFunction) {
@@ -282,8 +414,13 @@ public class JXNodeFactory {
     Integer slot = this.metaStack.lookupAttribute(ts, false);
     if (slot == null) {
       slot = metaStack.requestForLatentSlot(ts, val);
+    } else {
+      metaStack.rebindLatentSlot(slot, val);
     }
-    return JXAttributeBindingNodeGen.create(val, slot, true);
+    JXLatentBindingNode latent =
+        new JXLatentBindingNode(JXAttributeBindingNodeGen.create(val, slot, true));
+    metaStack.registerLatent(ts, latent);
+    return latent;
   }
 
   public JXExpressionNode referAttribute(Token attributeName, @Deprecated boolean isFunc) {
@@ -295,13 +432,33 @@ public class JXNodeFactory {
       if (slot == null) {
         throw new JXSyntaxError("Can not find attribute: " + attributeName);
       }
-      return JXSlotAccessNodeGen.create(slot, ts);
+      return readSlot(slot, ts);
     } else {
-      assert this.lambdaTemplate != null;
-      return new JXLambdaSlotAccessNode(ts, lambdaTemplate);
+      return referInLambda(ts);
     }
   }
 
+  /**
+   * Resolve a reference inside a lambda body, innermost first: attributes of literals in the body,
+   * then parameters, which become a constant index into the arguments, then imports.
+   */
+  private JXExpressionNode referInLambda(TruffleString ts) {
+    assert this.lambdaTemplate != null;
+    Integer slot = metaStack.lookupWithinLambda(ts);
+    if (slot != null) {
+      return readSlot(slot, ts);
+    }
+    int index = lambdaTemplate.getParameterNames().indexOf(ts);
+    if (index >= 0) {
+      return new JXLambdaSlotAccessNode(ts, index);
+    }
+    slot = metaStack.lookupAttribute(ts, true);
+    if (slot != null && importedModules.containsKey(ts) && metaStack.resolvesToGlobal(ts)) {
+      return readSlot(slot, ts);
+    }
+    throw new JXSyntaxError("Can not find attribute: " + ts);
+  }
+
   /**
    * @param valName
    * @param val
@@ -313,19 +470,88 @@ public class JXNodeFactory {
     if (existingSlot != null) {
       throw new JXSyntaxError();
     }
-    int frameSlot = metaStack.requestForSlot(ts, null);
+    int frameSlot = metaStack.requestForSlot(ts, val);
     return JXAttributeBindingNodeGen.create(val, frameSlot, false);
   }
 
   public void defLambda(Token name) {
     Reserved.validate(name);
     TruffleString lambdaName = asTruffleString(name, false);
-    this.lambdaTemplate = new LambdaTemplate(lambdaName);
-    this.metaStack.startLambda();
+    this.lambdaTemplate = new LambdaTemplate(lambdaName, source);
     logger.debug("Defining {} in namespace: {}", lambdaName, namespace);
     LambdaRegistry.getInstance(namespace).register(lambdaName, lambdaTemplate);
   }
 
+  /**
+   * Finish the definition of a lambda without building its body, which is built on first lookup,
+   * see {@link LazyLambdaBody}.
+   *
+   * @param bodyStart first token of the body
+   */
+  public void deferLambdaBody(Token bodyStart) {
+    if (deferredUnit == null) {
+      // imports precede lambda definitions, so they are all known by now
+      deferredUnit =
+          new LazyLambdaBody.Unit(language, source, namespace, new HashMap<>(importedModules));
+    }
+    this.lambdaTemplate.deferBody(new LazyLambdaBody(deferredUnit, bodyStart));
+    this.lambdaTemplate = null;
+  }
+
+  /**
+   * Prepare this factory, which is new, to build the deferred body of {@code template} with the
+   * imports of the source defining it in scope.
+   */
+  void startDeferredLambda(LambdaTemplate template, Map<TruffleString, JXModule> imports) {
+    for (Map.Entry<TruffleString, JXModule> imported : imports.entrySet()) {
+      metaStack.requestForGlobal(imported.getKey());
+      importedModules.put(imported.getKey(), imported.getValue());
+    }
+    this.lambdaTemplate = template;
+    this.metaStack.startLambda();
+  }
+
+  /**
+   * Prepare this factory, which is new, to build the root value of a source whose header is kept
+   * from a previous version, see {@link IncrementalParser}. The imports are looked up again, so
+   * edited ones are seen.
+   *
+   * @param imports names of the imports of the header, by alias
+   */
+  void startRootValueOnly(Map<TruffleString, TruffleString> imports) {
+    for (Map.Entry<TruffleString, TruffleString> imported : imports.entrySet()) {
+      JXModule module = importModule(imported.getValue(), imported.getKey());
+      metaStack.requestForGlobal(imported.getKey());
+      importedModules.put(imported.getKey(), module);
+    }
+  }
+
+  /** Remember where the root value starts, see {@link IncrementalParser}. */
+  public void startRootValue(Token start) {
+    this.rootStart = start;
+  }
+
+  Token getRootStart() {
+    return rootStart;
+  }
+
+  TruffleString getNamespace() {
+    return namespace;
+  }
+
+  Map<TruffleString, JXModule> getImportedModules() {
+    return importedModules;
+  }
+
+  Map<TruffleString, TruffleString> getImportedNames() {
+    return importedNames;
+  }
+
+  /** @return the plain JSON literals of the root value scanned as a whole, in source order */
+  List<IncrementalParser.Literal> getLiterals() {
+    return literals;
+  }
+
   public void addFormalParameter(Token name) {
     assert this.lambdaTemplate != null;
     TruffleString paramName = asTruffleString(name, false);
@@ -338,6 +564,7 @@ public class JXNodeFactory {
 
   public void finishDefLambda() {
     this.lambdaTemplate.finish(metaStack.buildTop());
+    LambdaInliner.prepare(this.lambdaTemplate);
     metaStack.close();
     this.lambdaTemplate = null;
   }
@@ -356,9 +583,7 @@ public class JXNodeFactory {
      * */
     Integer slot = metaStack.lookupAttribute(ts, true);
     if (slot != null) {
-      JXFeedValueNode res = JXFeedValueNodeGen.create(JXSlotAccessNodeGen.create(slot, ts));
-      res.feed(parameters);
-      return res;
+      return JXFeedValueNode.create(readSlot(slot, ts), parameters);
     }
 
     // Then we look at already defined ones
@@ -366,16 +591,29 @@ public class JXNodeFactory {
     if (lt == null) {
       throw new JXSyntaxError("Referring to non existing lambda: " + ts);
     }
+    JXExpressionNode inlined = inliner.inline(lt, parameters);
+    if (inlined != null) {
+      return inlined;
+    }
     // We use lazy lambda access, because it's body may not be finalized yet
-    JXFeedValueNode res = JXFeedValueNodeGen.create(JXLambdaNodeGen.create(lt));
-    res.feed(parameters);
-    return res;
+    return JXFeedValueNode.create(JXLambdaNodeGen.create(lt), parameters);
   }
 
   private TruffleString inferNamespace(Token namespaceToken) {
     return namespaceToken == null ? namespace : asTruffleString(namespaceToken, false);
   }
 
+  /**
+   * Operands of a known kind are constants or values computed by Janiva itself, never foreign
+   * values, so they need no normalization.
+   */
+  private JXExpressionNode unboxIfNeeded(JXExpressionNode operand) {
+    if (metaStack.inferSlotKind(operand) != FrameSlotKind.Illegal) {
+      return operand;
+    }
+    return JXUnboxNodeGen.create(operand);
+  }
+
   public JXExpressionNode createAttrAccess(JXExpressionNode val, Token attr, boolean isObject) {
     return JXAttributeAccessNodeGen.create(
         val,
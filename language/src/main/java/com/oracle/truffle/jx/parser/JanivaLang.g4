@@ -45,6 +45,8 @@
 
 grammar JanivaLang;
 
+tokens { JSON_VALUE } // a literal of plain JSON, see JsonScanner
+
 @parser::header
 {
 // DO NOT MODIFY - generated from JanivaLanguage.g4 using "mx create-sl-parser"
@@ -53,6 +55,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.RootCallTarget;
@@ -64,6 +68,7 @@ import com.oracle.truffle.jx.nodes.JXRootNode;
 import com.oracle.truffle.jx.nodes.JXStatementNode;
 import com.oracle.truffle.jx.parser.JXParseError;
 import com.oracle.truffle.jx.nodes.core.JXLambdaNode;
+import com.oracle.truffle.jx.runtime.JXModule;
 import com.oracle.truffle.api.nodes.RootNode;
 
 }
@@ -73,6 +78,40 @@ import com.oracle.truffle.api.nodes.RootNode;
 // DO NOT MODIFY - generated from JanivaLanguage.g4 using "mx create-sl-parser"
 }
 
+@lexer::members
+{
+/** Offered each object and array literal, see {@link JsonScanner}; none if {@code null}. */
+JsonScanner jsonScanner;
+
+/**
+ * Emits a literal of plain JSON as a single {@link JsonValueToken} of its frozen value, instead of
+ * the tokens it is made of.
+ */
+@Override
+public Token emit() {
+    if (jsonScanner == null || (_type != OBJECT_OPEN && _type != LIST_OPEN)) {
+        return super.emit();
+    }
+    Object value = jsonScanner.scan(_tokenStartCharIndex);
+    if (value == null) {
+        return super.emit();
+    }
+    int end = jsonScanner.getEnd();
+    if (jsonScanner.getNewlines() > 0) {
+        setLine(getLine() + jsonScanner.getNewlines());
+        setCharPositionInLine(end - jsonScanner.getLastNewline() - 1);
+    } else {
+        setCharPositionInLine(getCharPositionInLine() + end - _input.index());
+    }
+    _input.seek(end);
+    JsonValueToken token = new JsonValueToken(_tokenFactorySourcePair, JanivaLangParser.JSON_VALUE, _tokenStartCharIndex, end - 1, value);
+    token.setLine(_tokenStartLine);
+    token.setCharPositionInLine(_tokenStartCharPositionInLine);
+    emit(token);
+    return token;
+}
+}
+
 @parser::members
 {
 private JXNodeFactory factory;
@@ -102,17 +141,101 @@ private static void throwParseError(Source source, int line, int charPositionInL
 }
 
 public static RootNode parseSL(JanivaLang language, Source source, TruffleString nsAlias) {
-    JanivaLangLexer lexer = new JanivaLangLexer(CharStreams.fromString(source.getCharacters().toString()));
-    JanivaLangParser parser = new JanivaLangParser(new CommonTokenStream(lexer));
-    lexer.removeErrorListeners();
-    parser.removeErrorListeners();
+    return parseSL(language, source, () -> new JXNodeFactory(language, source, nsAlias));
+}
+
+/**
+ * Parses {@code source}, taking the actions of the grammar on a factory of {@code factories}. A
+ * second one is asked for if the source has to be parsed again, see {@link #parse}.
+ */
+public static RootNode parseSL(JanivaLang language, Source source, Supplier<? extends JXNodeFactory> factories) {
+    return parse(
+        () -> new JanivaLangLexer(new SourceCharStream(source)),
+        language,
+        source,
+        factories,
+        p -> {
+            p.janiva();
+            return p.factory.getRootNode();
+        });
+}
+
+/**
+ * Parses the body of a lambda deferred by {@link JXNodeFactory#deferLambdaBody}, which starts at
+ * {@code start} of the source, at {@code line} and {@code column}.
+ *
+ * @return the factory the body was added to
+ */
+public static JXNodeFactory parseLambdaBody(JanivaLang language, Source source, Supplier<? extends JXNodeFactory> factories, int start, int line, int column) {
+    return parse(lexersFrom(source, start, line, column), language, source, factories, p -> {
+        p.factory.addBody(p.lambda_body_entry().result);
+        return p.factory;
+    });
+}
+
+/**
+ * Parses the root value of a source alone, which starts at {@code start} of the source, at {@code
+ * line} and {@code column}. The factories are to be prepared with what the header of the source
+ * defines, see {@link IncrementalParser}.
+ */
+public static RootNode parseRootValue(JanivaLang language, Source source, Supplier<? extends JXNodeFactory> factories, int start, int line, int column) {
+    return parse(lexersFrom(source, start, line, column), language, source, factories, p -> {
+        p.root_value_entry();
+        return p.factory.getRootNode();
+    });
+}
+
+private static Supplier<JanivaLangLexer> lexersFrom(Source source, int start, int line, int column) {
+    return () -> {
+        CharStream input = new SourceCharStream(source);
+        input.seek(start);
+        JanivaLangLexer lexer = new JanivaLangLexer(input);
+        lexer.setLine(line);
+        lexer.setCharPositionInLine(column);
+        return lexer;
+    };
+}
+
+private static JanivaLangParser createParser(JanivaLang language, Source source, JanivaLangLexer lexer, boolean reportErrors) {
+    lexer.jsonScanner = new JsonScanner(language, source.getCharacters());
     BailoutErrorListener listener = new BailoutErrorListener(source);
+    lexer.removeErrorListeners();
     lexer.addErrorListener(listener);
-    parser.addErrorListener(listener);
-    parser.factory = new JXNodeFactory(language, source, nsAlias);
+    JanivaLangParser parser = new JanivaLangParser(new CommonTokenStream(lexer));
+    parser.removeErrorListeners();
+    if (reportErrors) {
+        parser.addErrorListener(listener);
+    }
     parser.source = source;
-    parser.janiva();
-    return parser.factory.getRootNode();
+    return parser;
+}
+
+/**
+ * Applies {@code rule} to the input of the lexers of {@code lexers}. With {@link
+ * JanivaLang#isTwoStageParsing}, the input is parsed with SLL prediction first, which is much
+ * cheaper than full LL, bailing out silently at the first syntax error. Only then is it parsed again
+ * with full LL, which reports the error if there is one. SLL also gives up on some valid input, e.g.
+ * arithmetic, which full LL then parses.
+ *
+ * <p>The second parse starts over with a new lexer, parser and factory, so that nothing the actions
+ * of the first one did is seen by it. The ATN and the DFA predictions are built into are static, so
+ * shared by all parses.
+ */
+private static <T> T parse(Supplier<JanivaLangLexer> lexers, JanivaLang language, Source source, Supplier<? extends JXNodeFactory> factories, Function<JanivaLangParser, T> rule) {
+    if (language.isTwoStageParsing()) {
+        JanivaLangParser parser = createParser(language, source, lexers.get(), false);
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.factory = factories.get();
+        try {
+            return rule.apply(parser);
+        } catch (ParseCancellationException e) {
+            // fall through to full LL
+        }
+    }
+    JanivaLangParser parser = createParser(language, source, lexers.get(), true);
+    parser.factory = factories.get();
+    return rule.apply(parser);
 }
 }
 
@@ -148,24 +271,33 @@ bind_latent [boolean isFunc] returns [JXStatementNode result]
 ;
 
 
-bind_import returns [JXStatementNode result]
+bind_import
 :
     IDENTIFIER                   {Token valName = $IDENTIFIER;}
     STREAM_ACCEPTS
     import_[valName]
-    END                         {$result = factory.bindImport(valName, $import_.result);}
+    END                         {factory.bindImport(valName, $import_.result);}
 ;
 
-import_[Token alias] returns [RootNode result]:
+import_[Token alias] returns [JXModule result]:
 IMPORT
 STREAM_ACCEPTS
 imported=STRING_LITERAL                      {$result=factory.importFile($imported, $alias);}
 ;
 
-j_root_value:
+j_root_value
+@init                                           {factory.startRootValue($start);}
+:
 j_value[false]                                  {factory.registerRootNode($j_value.result);}
 ;
 
+// entry of parseRootValue, the root value of a source whose header is kept
+root_value_entry
+:
+j_root_value
+EOF
+;
+
 j_list returns [JXExpressionNode result]
 :
 LIST_OPEN                                {factory.startArray();}
@@ -206,6 +338,8 @@ OBJECT_CLOSE                            {$result = factory.endObject(body);}
 
 
 j_value [boolean isFunc] returns [JXExpressionNode result]:
+JSON_VALUE                              {$result = factory.createFrozenValue($JSON_VALUE);}
+|
 BRACKET_OPEN
 j_value[$isFunc]                                  {$result=$j_value.result;}
 BRACKET_CLOSE
@@ -342,8 +476,21 @@ funcName=IDENTIFIER                     {factory.defLambda($funcName);}
 INTRO
 arg_list
 STREAM_PRODUCE
-body=j_value[true]                      {factory.addBody($body.result);}
-END                                     {factory.finishDefLambda();}
+body=lambda_body                        {factory.deferLambdaBody($body.start);}
+END
+;
+
+// skipped, the body is parsed by lambda_body_entry on first use, see parseLambdaBody
+lambda_body
+:
+(~END)+
+;
+
+// entry of parseLambdaBody, the deferred body up to the '#' closing its definition
+lambda_body_entry returns [JXExpressionNode result]
+:
+body=j_value[true]                      {$result = $body.result;}
+END
 ;
 
 lambda_invocation returns [JXExpressionNode result]
@@ -0,0 +1,422 @@
+package com.oracle.truffle.jx.parser;
+
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.jx.JanivaLang;
+import com.oracle.truffle.jx.nodes.expression.value.JXNumberLiteralNode;
+import com.oracle.truffle.jx.runtime.JXStrings;
+import com.oracle.truffle.jx.runtime.view.JXFrozenArrayView;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Scans object and array literals made of literals only, i.e. plain JSON, straight into the frozen
+ * values the factory would have made of them (see {@link JXNodeFactory#endObject} and {@link
+ * JXNodeFactory#closeArray}), without tokens, nodes or slots. The lexer hands it every {@code {}
+ * and {@code [}, and emits a single {@link JsonValueToken} for a literal it scans.
+ *
+ * <p>Only what the grammar reads alike is scanned: strings without line breaks, taken verbatim,
+ * numbers as {@code NUMERIC_LITERAL}s, {@code true} and {@code false}. Anything else, including
+ * comments, empty literals and duplicate keys, makes the scan give up, and the literal is lexed
+ * token by token; literals within it are then offered again. Literals found impure are remembered,
+ * so no character is scanned more than twice however deeply the literal that gives up is nested.
+ */
+final class JsonScanner {
+
+  /* Deeper literals are left to the parser. */
+  private static final int MAX_DEPTH = 256;
+  /* Keys remembered for reuse, further keys are created every time they occur. */
+  private static final int MAX_KEYS = 1 << 16;
+  /* Objects with more keys than this are checked for duplicates with a set. */
+  private static final int LINEAR_DUPLICATE_CHECK = 8;
+
+  private final JanivaLang language;
+  private final CharSequence chars;
+
+  /* Scan state: position, and the line breaks passed. */
+  private int pos;
+  private int newlines;
+  private int lastNewline;
+
+  /* Keys and values of the literals being scanned, innermost last. */
+  private TruffleString[] keys = new TruffleString[64];
+  private Object[] values = new Object[64];
+  private int top;
+  /* Start of each literal being scanned, innermost last. */
+  private int[] open = new int[16];
+  private int depth;
+
+  /* Starts of the literals found impure, in order. */
+  private final Deque<Integer> impure = new ArrayDeque<>();
+
+  private String[] keyTexts = new String[256];
+  private TruffleString[] keyStrings = new TruffleString[256];
+  private int keyCount;
+
+  JsonScanner(JanivaLang language, CharSequence chars) {
+    this.language = language;
+    this.chars = chars;
+  }
+
+  /**
+   * @param start index of the {@code {} or {@code [} opening the literal
+   * @return the frozen value of the literal, {@code null} if it is not plain JSON
+   */
+  Object scan(int start) {
+    while (!impure.isEmpty() && impure.peekFirst() < start) {
+      impure.removeFirst();
+    }
+    if (!impure.isEmpty() && impure.peekFirst() == start) {
+      return null;
+    }
+    pos = start;
+    newlines = 0;
+    lastNewline = -1;
+    top = 0;
+    depth = 0;
+    Object value = value();
+    if (value == null) {
+      // the literals still open contain what made the scan give up
+      for (int i = 0; i < depth; i++) {
+        if (impure.isEmpty() || impure.peekLast() < open[i]) {
+          impure.addLast(open[i]);
+        }
+      }
+    }
+    return value;
+  }
+
+  /** @return index after the literal scanned last */
+  int getEnd() {
+    return pos;
+  }
+
+  /** @return number of line breaks within the literal scanned last */
+  int getNewlines() {
+    return newlines;
+  }
+
+  /** @return index of the last line break within the literal scanned last, if any */
+  int getLastNewline() {
+    return lastNewline;
+  }
+
+  private Object value() {
+    skipWhitespace();
+    switch (peek()) {
+      case '{':
+        return object();
+      case '[':
+        return array();
+      case '"':
+        int from = pos + 1;
+        int to = stringEnd();
+        return to < 0 ? null : JXStrings.fromJavaString(chars.subSequence(from, to).toString());
+      case 't':
+        return word("true") ? Boolean.TRUE : null;
+      case 'f':
+        return word("false") ? Boolean.FALSE : null;
+      default:
+        return number();
+    }
+  }
+
+  private Object object() {
+    if (!enter()) {
+      return null;
+    }
+    int base = top;
+    while (true) {
+      skipWhitespace();
+      if (peek() != '"') {
+        // not a key, and no empty literal either
+        return null;
+      }
+      int from = pos + 1;
+      int to = stringEnd();
+      if (to < 0) {
+        return null;
+      }
+      TruffleString key = key(from, to);
+      skipWhitespace();
+      if (peek() != ':') {
+        return null;
+      }
+      pos++;
+      Object value = value();
+      if (value == null) {
+        return null;
+      }
+      push(key, value);
+      skipWhitespace();
+      int c = peek();
+      if (c == ',') {
+        pos++;
+        skipWhitespace();
+        c = peek();
+        if (c != '}') {
+          continue;
+        }
+      }
+      if (c != '}') {
+        return null;
+      }
+      pos++;
+      TruffleString[] names = Arrays.copyOfRange(keys, base, top);
+      if (hasDuplicates(names)) {
+        return null;
+      }
+      Object[] members = Arrays.copyOfRange(values, base, top);
+      leave(base);
+      return language.createFrozenObject(names, members);
+    }
+  }
+
+  private Object array() {
+    if (!enter()) {
+      return null;
+    }
+    int base = top;
+    while (true) {
+      Object value = value();
+      if (value == null) {
+        return null;
+      }
+      push(null, value);
+      skipWhitespace();
+      int c = peek();
+      if (c == ',') {
+        pos++;
+        continue;
+      }
+      if (c != ']') {
+        return null;
+      }
+      pos++;
+      Object[] elements = Arrays.copyOfRange(values, base, top);
+      leave(base);
+      return JXFrozenArrayView.of(elements);
+    }
+  }
+
+  private boolean enter() {
+    if (depth == MAX_DEPTH) {
+      return false;
+    }
+    if (depth == open.length) {
+      open = Arrays.copyOf(open, depth * 2);
+    }
+    open[depth++] = pos++;
+    return true;
+  }
+
+  private void leave(int base) {
+    Arrays.fill(values, base, top, null);
+    Arrays.fill(keys, base, top, null);
+    top = base;
+    depth--;
+  }
+
+  private void push(TruffleString key, Object value) {
+    if (top == values.length) {
+      values = Arrays.copyOf(values, top * 2);
+      keys = Arrays.copyOf(keys, top * 2);
+    }
+    keys[top] = key;
+    values[top++] = value;
+  }
+
+  /**
+   * Consumes a string literal, which is read verbatim and cannot span lines, like a {@code
+   * STRING_LITERAL}.
+   *
+   * @return index of the closing quote, or -1 if the string is not closed on its line
+   */
+  private int stringEnd() {
+    for (int i = pos + 1; i < chars.length(); i++) {
+      char c = chars.charAt(i);
+      if (c == '"') {
+        pos = i + 1;
+        return i;
+      }
+      if (c == '\r' || c == '\n') {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  /** Consumes {@code word}, unless it is only the start of an identifier. */
+  private boolean word(String word) {
+    int end = pos + word.length();
+    if (end > chars.length() || isIdentifierPart(charAt(end))) {
+      return false;
+    }
+    for (int i = 0; i < word.length(); i++) {
+      if (chars.charAt(pos + i) != word.charAt(i)) {
+        return false;
+      }
+    }
+    pos = end;
+    return true;
+  }
+
+  /**
+   * Consumes a number, i.e. a {@code NUMERIC_LITERAL} with an optional fraction that is one too.
+   * Anything the lexer would split otherwise, like leading zeros, is left to it.
+   */
+  private Object number() {
+    int start = pos;
+    int wholeEnd = digits(pos);
+    if (wholeEnd < 0) {
+      return null;
+    }
+    int end = wholeEnd;
+    boolean hasDecimal = charAt(end) == '.';
+    if (hasDecimal) {
+      end = digits(end + 1);
+      if (end < 0) {
+        return null;
+      }
+    }
+    if (isIdentifierPart(charAt(end)) || charAt(end) == '.') {
+      return null;
+    }
+    pos = end;
+    if (!hasDecimal && end - start <= 18) {
+      long value = 0;
+      for (int i = start; i < end; i++) {
+        value = value * 10 + (chars.charAt(i) - '0');
+      }
+      return value;
+    }
+    BigDecimal value = new BigDecimal(chars.subSequence(start, end).toString());
+    return new JXNumberLiteralNode(value, hasDecimal).getConstantValue();
+  }
+
+  /** @return index after the {@code NUMERIC_LITERAL} at {@code from}, or -1 if there is none */
+  private int digits(int from) {
+    int c = charAt(from);
+    if (c == '0') {
+      return isDigit(charAt(from + 1)) ? -1 : from + 1;
+    }
+    if (!isDigit(c)) {
+      return -1;
+    }
+    int i = from + 1;
+    while (isDigit(charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  /** Whitespace as the lexer skips it, counting line breaks the way the lexer counts lines. */
+  private void skipWhitespace() {
+    while (pos < chars.length()) {
+      char c = chars.charAt(pos);
+      if (c == '\n') {
+        newlines++;
+        lastNewline = pos;
+      } else if (c != ' ' && c != '\t' && c != '\r' && c != '\f') {
+        return;
+      }
+      pos++;
+    }
+  }
+
+  /** Keys repeat a lot, so each is created once and shared, which also lets objects share shapes. */
+  private TruffleString key(int from, int to) {
+    int hash = 0;
+    for (int i = from; i < to; i++) {
+      hash = 31 * hash + chars.charAt(i);
+    }
+    int mask = keyTexts.length - 1;
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    for (String text = keyTexts[slot]; text != null; text = keyTexts[slot]) {
+      if (regionEquals(text, from, to)) {
+        return keyStrings[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    String text = chars.subSequence(from, to).toString();
+    TruffleString key = JXStrings.fromJavaString(text);
+    if (keyCount < MAX_KEYS) {
+      keyTexts[slot] = text;
+      keyStrings[slot] = key;
+      if (++keyCount * 2 > keyTexts.length) {
+        rehash();
+      }
+    }
+    return key;
+  }
+
+  private boolean regionEquals(String text, int from, int to) {
+    if (text.length() != to - from) {
+      return false;
+    }
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) != chars.charAt(from + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void rehash() {
+    String[] texts = keyTexts;
+    TruffleString[] strings = keyStrings;
+    keyTexts = new String[texts.length * 2];
+    keyStrings = new TruffleString[texts.length * 2];
+    int mask = keyTexts.length - 1;
+    for (int i = 0; i < texts.length; i++) {
+      if (texts[i] != null) {
+        int hash = texts[i].hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (keyTexts[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        keyTexts[slot] = texts[i];
+        keyStrings[slot] = strings[i];
+      }
+    }
+  }
+
+  private static boolean hasDuplicates(TruffleString[] names) {
+    if (names.length <= LINEAR_DUPLICATE_CHECK) {
+      for (int i = 1; i < names.length; i++) {
+        for (int j = 0; j < i; j++) {
+          if (names[i].equals(names[j])) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+    Set<TruffleString> seen = new HashSet<>();
+    for (TruffleString name : names) {
+      if (!seen.add(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int peek() {
+    return charAt(pos);
+  }
+
+  private int charAt(int index) {
+    return index < chars.length() ? chars.charAt(index) : -1;
+  }
+
+  private static boolean isDigit(int c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isIdentifierPart(int c) {
+    return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+  }
+}
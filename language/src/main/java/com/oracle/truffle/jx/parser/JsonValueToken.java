@@ -0,0 +1,27 @@
+package com.oracle.truffle.jx.parser;
+
+import com.oracle.truffle.jx.runtime.view.JXFrozenArrayView;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.misc.Pair;
+
+/**
+ * A literal {@link JsonScanner} scanned in one go, carrying its frozen value to {@link
+ * JXNodeFactory#createFrozenValue}. Its text is only an ellipsis of the literal, which can be large.
+ */
+final class JsonValueToken extends CommonToken {
+
+  private final transient Object value;
+
+  JsonValueToken(
+      Pair<TokenSource, CharStream> source, int type, int start, int stop, Object value) {
+    super(source, type, DEFAULT_CHANNEL, start, stop);
+    this.value = value;
+    setText(value instanceof JXFrozenArrayView ? "[...]" : "{...}");
+  }
+
+  Object getValue() {
+    return value;
+  }
+}
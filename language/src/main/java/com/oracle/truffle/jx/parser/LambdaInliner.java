@@ -0,0 +1,193 @@
+package com.oracle.truffle.jx.parser;
+
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.NodeUtil;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.nodes.core.JXAttributeBindingNode;
+import com.oracle.truffle.jx.nodes.core.JXAttributeBindingNodeGen;
+import com.oracle.truffle.jx.nodes.core.JXLambdaNode;
+import com.oracle.truffle.jx.nodes.core.JXLambdaSlotAccessNode;
+import com.oracle.truffle.jx.nodes.core.JXLatentBindingNode;
+import com.oracle.truffle.jx.nodes.core.JXLatentReadNode;
+import com.oracle.truffle.jx.nodes.core.JXModuleReadNode;
+import com.oracle.truffle.jx.nodes.core.JXSlotAccessNode;
+import com.oracle.truffle.jx.nodes.core.JXSlotAccessNodeGen;
+import com.oracle.truffle.jx.nodes.expression.value.JXConstantNode;
+import com.oracle.truffle.jx.statics.lambda.LambdaTemplate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Inlines calls of small lambdas while the AST is built. A call that applies all arguments of a
+ * finished lambda is replaced by a copy of its body, with the arguments in place of the parameters
+ * and the slots of the body moved to the frame of the caller. Lambdas of imported namespaces are
+ * resolved through the same {@link com.oracle.truffle.jx.statics.lambda.LambdaRegistry} and
+ * inlined alike, so helpers shared between files cost no call either.
+ *
+ * <p>Bodies of more than {@link #BODY_BUDGET} nodes and bodies calling their own lambda are not
+ * inlined, and no more than {@link #UNIT_BUDGET} nodes are inlined per source or lambda body. A
+ * lambda is not finished while its body is built (see {@link LazyLambdaBody}), so it is never
+ * inlined into itself, nor into the lambdas its body calls back.
+ */
+final class LambdaInliner {
+
+  static final int BODY_BUDGET = 40;
+  static final int UNIT_BUDGET = 4000;
+
+  private final MetaStack metaStack;
+  private int inlinedNodes;
+
+  LambdaInliner(MetaStack metaStack) {
+    this.metaStack = metaStack;
+  }
+
+  /**
+   * Makes a finished lambda available for inlining, if it is small and not recursive. The copy is
+   * taken before the body ever runs, so it holds no specialization state of its own.
+   */
+  static void prepare(LambdaTemplate template) {
+    JXExpressionNode body = template.getBody();
+    if (body == null || NodeUtil.countNodes(body) > BODY_BUDGET) {
+      return;
+    }
+    for (JXLambdaNode lambda : NodeUtil.findAllNodeInstances(body, JXLambdaNode.class)) {
+      if (lambda.getLambdaTemplate() == template) {
+        return;
+      }
+    }
+    template.setInlineBody(copy(body, slot -> slot, null));
+  }
+
+  /**
+   * @param args arguments of the call, built in the current frame
+   * @return the inlined body, or {@code null} if the call is to stay a call
+   */
+  JXExpressionNode inline(LambdaTemplate template, List<JXExpressionNode> args) {
+    JXExpressionNode body = template.getInlineBody();
+    List<JXExpressionNode> actual = args == null ? Collections.emptyList() : args;
+    if (body == null || actual.size() != template.parameterCount()) {
+      return null;
+    }
+    int size = NodeUtil.countNodes(body);
+    if (inlinedNodes + size > UNIT_BUDGET) {
+      return null;
+    }
+    int[] uses = new int[actual.size()];
+    for (JXLambdaSlotAccessNode p :
+        NodeUtil.findAllNodeInstances(body, JXLambdaSlotAccessNode.class)) {
+      uses[p.getIndex()]++;
+    }
+    for (int i = 0; i < uses.length; i++) {
+      // an argument is evaluated once by a call, copies of it would each be evaluated
+      if (uses[i] > 1 && !isTrivial(actual.get(i))) {
+        return null;
+      }
+    }
+
+    FrameDescriptor callee = template.getFrameDescriptor();
+    Map<Integer, Integer> slots = new HashMap<>();
+    IntUnaryOperator remap =
+        slot ->
+            slots.computeIfAbsent(
+                slot,
+                s ->
+                    metaStack.requestForInlinedSlot(
+                        callee.getSlotName(s), callee.getSlotKind(s)));
+    boolean[] placed = new boolean[actual.size()];
+    Function<JXLambdaSlotAccessNode, JXExpressionNode> parameters =
+        p -> {
+          int i = p.getIndex();
+          JXExpressionNode arg = actual.get(i);
+          if (placed[i]) {
+            arg = NodeUtil.cloneNode(arg);
+            metaStack.retain(arg);
+          }
+          placed[i] = true;
+          return arg;
+        };
+    JXExpressionNode res = copy(body, remap, parameters);
+    for (int i = 0; i < uses.length; i++) {
+      if (uses[i] == 0) {
+        metaStack.release(actual.get(i));
+      }
+    }
+    inlinedNodes += size;
+    return res;
+  }
+
+  /** Arguments that cost no more to evaluate at each use than to pass. */
+  private static boolean isTrivial(JXExpressionNode arg) {
+    return arg instanceof JXConstantNode
+        || arg instanceof JXSlotAccessNode
+        || arg instanceof JXLatentReadNode
+        || arg instanceof JXLambdaSlotAccessNode
+        || arg instanceof JXModuleReadNode;
+  }
+
+  /**
+   * Deep copy of {@code node}, with reads of latents bound within it referring to the copied
+   * bindings, slots mapped by {@code slots} and, unless {@code parameters} is {@code null},
+   * parameters replaced by what it gives. Also copies whole ASTs, see {@link IncrementalParser}.
+   */
+  static JXExpressionNode copy(
+      JXExpressionNode node,
+      IntUnaryOperator slots,
+      Function<JXLambdaSlotAccessNode, JXExpressionNode> parameters) {
+    JXExpressionNode copy = NodeUtil.cloneNode(node);
+    Map<Node, Node> latents = new IdentityHashMap<>();
+    mapLatents(node, copy, latents);
+    return (JXExpressionNode) rewrite(copy, slots, parameters, latents);
+  }
+
+  private static void mapLatents(Node original, Node copy, Map<Node, Node> latents) {
+    if (original instanceof JXLatentBindingNode) {
+      latents.put(original, copy);
+    }
+    Iterator<Node> copies = copy.getChildren().iterator();
+    for (Node child : original.getChildren()) {
+      mapLatents(child, copies.next(), latents);
+    }
+  }
+
+  /** @return the node to put in place of {@code node}, which may be {@code node} itself */
+  private static Node rewrite(
+      Node node,
+      IntUnaryOperator slots,
+      Function<JXLambdaSlotAccessNode, JXExpressionNode> parameters,
+      Map<Node, Node> latents) {
+    List<Node> children = new ArrayList<>();
+    node.getChildren().forEach(children::add);
+    for (Node child : children) {
+      Node replacement = rewrite(child, slots, parameters, latents);
+      if (replacement != child) {
+        NodeUtil.replaceChild(node, child, replacement);
+      }
+    }
+    if (node instanceof JXLambdaSlotAccessNode && parameters != null) {
+      return parameters.apply((JXLambdaSlotAccessNode) node);
+    }
+    if (node instanceof JXLatentReadNode) {
+      JXLatentReadNode read = (JXLatentReadNode) node;
+      Node binding = latents.getOrDefault(read.getBinding(), read.getBinding());
+      return new JXLatentReadNode((JXLatentBindingNode) binding, read.getRead());
+    }
+    if (node instanceof JXSlotAccessNode) {
+      JXSlotAccessNode read = (JXSlotAccessNode) node;
+      return JXSlotAccessNodeGen.create(slots.applyAsInt(read.getSlot()), read.getName());
+    }
+    if (node instanceof JXAttributeBindingNode) {
+      JXAttributeBindingNode binding = (JXAttributeBindingNode) node;
+      return JXAttributeBindingNodeGen.create(
+          binding.getVal(), slots.applyAsInt(binding.getSlot()), binding.isLatent());
+    }
+    return node;
+  }
+}
@@ -0,0 +1,68 @@
+package com.oracle.truffle.jx.parser;
+
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.jx.JanivaLang;
+import com.oracle.truffle.jx.runtime.JXModule;
+import com.oracle.truffle.jx.statics.lambda.LambdaTemplate;
+import java.util.Map;
+import org.antlr.v4.runtime.Token;
+
+/**
+ * The body of a lambda, remembered by where it starts in the source while the source is parsed,
+ * and parsed and built on first lookup (see {@link LambdaTemplate#ensureBody}). Lambdas of a
+ * library that are never called so cost neither an AST nor a frame descriptor.
+ *
+ * <p>The body is built by a factory of its own, which sees what the body could see where it was
+ * defined: the namespace and the imports of its source.
+ */
+final class LazyLambdaBody implements LambdaTemplate.BodyBuilder {
+
+  /** What the bodies deferred while parsing one source share. */
+  static final class Unit {
+    private final JanivaLang language;
+    private final Source source;
+    private final TruffleString namespace;
+    private final Map<TruffleString, JXModule> imports;
+
+    Unit(
+        JanivaLang language,
+        Source source,
+        TruffleString namespace,
+        Map<TruffleString, JXModule> imports) {
+      this.language = language;
+      this.source = source;
+      this.namespace = namespace;
+      this.imports = imports;
+    }
+  }
+
+  private final Unit unit;
+  private final int startIndex;
+  private final int line;
+  private final int column;
+
+  LazyLambdaBody(Unit unit, Token start) {
+    this.unit = unit;
+    this.startIndex = start.getStartIndex();
+    this.line = start.getLine();
+    this.column = start.getCharPositionInLine();
+  }
+
+  @Override
+  public void build(LambdaTemplate template) {
+    JXNodeFactory factory =
+        JanivaLangParser.parseLambdaBody(
+            unit.language,
+            unit.source,
+            () -> {
+              JXNodeFactory f = new JXNodeFactory(unit.language, unit.source, unit.namespace);
+              f.startDeferredLambda(template, unit.imports);
+              return f;
+            },
+            startIndex,
+            line,
+            column);
+    factory.finishDefLambda();
+  }
+}
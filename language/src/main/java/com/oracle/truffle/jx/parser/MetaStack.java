@@ -2,12 +2,28 @@ package com.oracle.truffle.jx.parser;
 
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlotKind;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.NodeUtil;
 import com.oracle.truffle.api.strings.TruffleString;
 import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.nodes.JXBinaryNode;
+import com.oracle.truffle.jx.nodes.core.JXLatentBindingNode;
+import com.oracle.truffle.jx.nodes.core.JXLatentReadNode;
+import com.oracle.truffle.jx.nodes.core.JXSlotAccessNode;
+import com.oracle.truffle.jx.nodes.expression.JXAddNode;
+import com.oracle.truffle.jx.nodes.expression.JXDivNode;
+import com.oracle.truffle.jx.nodes.expression.JXEqualNode;
+import com.oracle.truffle.jx.nodes.expression.JXLessOrEqualNode;
+import com.oracle.truffle.jx.nodes.expression.JXLessThanNode;
+import com.oracle.truffle.jx.nodes.expression.JXLogicalNotNode;
+import com.oracle.truffle.jx.nodes.expression.JXMulNode;
+import com.oracle.truffle.jx.nodes.expression.JXShortCircuitNode;
+import com.oracle.truffle.jx.nodes.expression.JXSubNode;
 import com.oracle.truffle.jx.nodes.expression.value.JXBoolLiteralNode;
+import com.oracle.truffle.jx.nodes.expression.value.JXConstantNode;
 import com.oracle.truffle.jx.nodes.expression.value.JXNumberLiteralNode;
-import com.oracle.truffle.jx.nodes.expression.value.JXStringLiteralNode;
 import java.util.*;
+import java.util.function.IntConsumer;
 import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,11 +49,17 @@ public class MetaStack {
     protected final Map<TruffleString, Integer> locals;
     protected final Map<TruffleString, Integer> latents;
     protected final List<JXExpressionNode> arrayNodes;
+    /** Latest binding of each latent, i.e. the one a read parsed now refers to. */
+    protected final Map<TruffleString, JXLatentBindingNode> latentBindings;
+    /** Latent slots bound more than once. */
+    protected final Set<Integer> rebound;
 
     LexicalScope(LexicalScope outer, ScopeType type) {
       this.outer = outer;
       this.locals = new HashMap<>();
       this.latents = new HashMap<>();
+      this.latentBindings = new HashMap<>();
+      this.rebound = new HashSet<>();
       this.arrayNodes = new LinkedList<>();
       this.type = type;
     }
@@ -68,6 +90,10 @@ public class MetaStack {
     this.frameStack = new Stack<>();
     frameStack.push(FrameDescriptor.newBuilder());
     root = frameStack.peek();
+    this.slotKinds = new Stack<>();
+    slotKinds.push(new HashMap<>());
+    this.references = new Stack<>();
+    references.push(new HashMap<>());
 
     // init global
     this.globalScope = this.lexicalScope;
@@ -75,6 +101,10 @@ public class MetaStack {
   }
 
   private Stack<FrameDescriptor.Builder> frameStack;
+  /** Inferred kind of each slot of the frames being built, parallel to {@link #frameStack}. */
+  private final Stack<Map<Integer, FrameSlotKind>> slotKinds;
+  /** Number of reads of each slot of the frames being built, parallel to {@link #frameStack}. */
+  private final Stack<Map<Integer, Integer>> references;
   private FrameDescriptor.Builder root;
   private LexicalScope lexicalScope;
   private final LexicalScope globalScope;
@@ -92,6 +122,8 @@ public class MetaStack {
     logger.debug("Opening lambda scope");
     this.lexicalScope = new LexicalScope(lexicalScope, ScopeType.LAMBDA);
     this.frameStack.push(FrameDescriptor.newBuilder());
+    this.slotKinds.push(new HashMap<>());
+    this.references.push(new HashMap<>());
   }
 
   public boolean isCurrentLambdaScope() {
@@ -113,6 +145,8 @@ public class MetaStack {
     if (this.lexicalScope.type == ScopeType.LAMBDA) {
       logger.debug("Closing lambda scope");
       this.frameStack.pop();
+      this.slotKinds.pop();
+      this.references.pop();
     }
     this.lexicalScope = lexicalScope.outer;
   }
@@ -121,21 +155,173 @@ public class MetaStack {
     return lexicalScope.find(attributeName, includeOuter);
   }
 
+  /**
+   * @return slot of {@code attributeName} if it is bound in the current lambda body, not counting
+   *     parameters, which have no slot
+   */
+  public Integer lookupWithinLambda(TruffleString attributeName) {
+    LexicalScope s = lexicalScope;
+    while (s != null) {
+      Integer slot = s.find(attributeName, false);
+      if (slot != null) {
+        return slot;
+      }
+      if (s.type == ScopeType.LAMBDA) {
+        return null;
+      }
+      s = s.outer;
+    }
+    return null;
+  }
+
+  /**
+   * @return whether the innermost binding of {@code name} lives in the global scope
+   */
+  public boolean resolvesToGlobal(TruffleString name) {
+    LexicalScope s = lexicalScope;
+    while (s != null) {
+      if (s.latents.containsKey(name) || s.locals.containsKey(name)) {
+        return s == globalScope;
+      }
+      s = s.outer;
+    }
+    return false;
+  }
+
+  /**
+   * Records a read of {@code slot}, resolved in the current scope. Imports are not slots of the
+   * frame being built and must not be recorded.
+   */
+  public void markReferenced(int slot) {
+    references.peek().merge(slot, 1, Integer::sum);
+  }
+
+  /**
+   * @return whether {@code slot} of the current frame is read by some expression parsed so far. A
+   *     lambda body cannot read the enclosing frame, so once the scope of an attribute is closed
+   *     this is final.
+   */
+  public boolean isReferenced(int slot) {
+    return references.peek().getOrDefault(slot, 0) > 0;
+  }
+
+  /**
+   * Forgets the reads made by {@code val}, which is dropped from the tree. Attributes it was the
+   * only reader of become unreferenced in turn.
+   */
+  public void release(Node val) {
+    Map<Integer, Integer> counts = references.peek();
+    forEachSlotRead(val, slot -> counts.computeIfPresent(slot, (k, n) -> n > 1 ? n - 1 : null));
+  }
+
+  /** Records the reads made by {@code val}, a copy of an expression already in the tree. */
+  public void retain(Node val) {
+    Map<Integer, Integer> counts = references.peek();
+    forEachSlotRead(val, slot -> counts.merge(slot, 1, Integer::sum));
+  }
+
+  private static void forEachSlotRead(Node node, IntConsumer action) {
+    if (node instanceof JXSlotAccessNode) {
+      action.accept(((JXSlotAccessNode) node).getSlot());
+    }
+    NodeUtil.forEachChild(
+        node,
+        child -> {
+          forEachSlotRead(child, action);
+          return true;
+        });
+  }
+
+  /** Makes {@code binding} the one reads of {@code name} in the current scope refer to. */
+  public void registerLatent(TruffleString name, JXLatentBindingNode binding) {
+    lexicalScope.latentBindings.put(name, binding);
+  }
+
+  /**
+   * @return the latent binding a read of {@code name} refers to, or {@code null} if {@code name}
+   *     does not resolve to a latent of the current frame
+   */
+  public JXLatentBindingNode lookupLatentBinding(TruffleString name) {
+    LexicalScope s = lexicalScope;
+    while (s != null) {
+      if (s.latents.containsKey(name)) {
+        return s.latentBindings.get(name);
+      }
+      if (s.locals.containsKey(name) || s.type == ScopeType.LAMBDA) {
+        return null;
+      }
+      s = s.outer;
+    }
+    return null;
+  }
+
+  /**
+   * Whether {@code binding}, a latent of the current scope, can be evaluated on first read instead
+   * of where it is bound. It must be worth it, i.e. not a constant or a plain read, and evaluating
+   * it later must give the same value, which only rebinding a latent of this scope can break.
+   */
+  public boolean canDefer(JXLatentBindingNode binding) {
+    JXExpressionNode val = binding.getVal();
+    if (val instanceof JXConstantNode
+        || val instanceof JXSlotAccessNode
+        || val instanceof JXLatentReadNode) {
+      return false;
+    }
+    Set<Integer> rebound = lexicalScope.rebound;
+    if (rebound.contains(binding.getSlot())) {
+      return false;
+    }
+    boolean[] readsRebound = new boolean[1];
+    forEachSlotRead(val, slot -> readsRebound[0] |= rebound.contains(slot));
+    return !readsRebound[0];
+  }
+
   public Integer requestForLatentSlot(TruffleString attributeName, JXExpressionNode val) {
-    int slot = frameStack.peek().addSlot(inferSlotKind(val), attributeName, null);
+    int slot = addSlot(attributeName, val);
     lexicalScope.latents.putIfAbsent(attributeName, slot);
     logger.debug("requesting latent for slot {} -> {}", attributeName, slot);
     return slot;
   }
 
   public Integer requestForSlot(TruffleString attributeName, JXExpressionNode val) {
-    int slot = frameStack.peek().addSlot(inferSlotKind(val), attributeName, null);
+    int slot = addSlot(attributeName, val);
     lexicalScope.locals.putIfAbsent(attributeName, slot);
     logger.debug("requesting for slot {} -> {}", attributeName, slot);
 
     return slot;
   }
 
+  /** @return whether latent {@code slot} of the current scope is bound more than once */
+  public boolean isRebound(int slot) {
+    return lexicalScope.rebound.contains(slot);
+  }
+
+  /** Records that latent {@code slot} is bound again, to {@code val}. */
+  public void rebindLatentSlot(int slot, JXExpressionNode val) {
+    lexicalScope.rebound.add(slot);
+    Map<Integer, FrameSlotKind> kinds = slotKinds.peek();
+    if (kinds.get(slot) != inferSlotKind(val)) {
+      kinds.put(slot, FrameSlotKind.Illegal);
+    }
+  }
+
+  /**
+   * Adds a slot to the current frame for a slot of an inlined lambda body. It is not bound to a
+   * name in any scope, the inlined nodes refer to it by index.
+   */
+  public int requestForInlinedSlot(Object name, FrameSlotKind kind) {
+    int slot = frameStack.peek().addSlot(kind, name, null);
+    slotKinds.peek().put(slot, kind);
+    return slot;
+  }
+
+  private int addSlot(TruffleString attributeName, JXExpressionNode val) {
+    FrameSlotKind kind = inferSlotKind(val);
+    int slot = frameStack.peek().addSlot(kind, attributeName, null);
+    slotKinds.peek().put(slot, kind);
+    return slot;
+  }
+
   /**
    * Request for a global slot, which is located in the outer most scope
    *
@@ -165,16 +351,52 @@ public class MetaStack {
     return lexicalScope.arrayNodes;
   }
 
-  private FrameSlotKind inferSlotKind(JXExpressionNode val) {
-    if (val instanceof JXStringLiteralNode) {
-      return FrameSlotKind.Object;
-    }
+  /**
+   * Infers the kind of the values {@code val} evaluates to, which becomes the initial kind of the
+   * slot it is bound to. This is a guess the binding nodes specialize on, a wrong one costs a single
+   * re-specialization to {@link FrameSlotKind#Object}. {@link FrameSlotKind#Illegal} leaves the
+   * kind to the first value written.
+   *
+   * <p>Only expressions of the frame being built are looked at, as a lambda body cannot refer to
+   * slots of the enclosing frame.
+   */
+  public FrameSlotKind inferSlotKind(JXExpressionNode val) {
     if (val instanceof JXBoolLiteralNode) {
       return FrameSlotKind.Boolean;
     }
     if (val instanceof JXNumberLiteralNode) {
-      return ((JXNumberLiteralNode) val).hasDecimal() ? FrameSlotKind.Double : FrameSlotKind.Long;
+      JXNumberLiteralNode number = (JXNumberLiteralNode) val;
+      return number.isLong()
+          ? FrameSlotKind.Long
+          : number.isDouble() ? FrameSlotKind.Double : FrameSlotKind.Object;
+    }
+    if (val instanceof JXConstantNode) {
+      return FrameSlotKind.Object;
+    }
+    if (val instanceof JXLatentReadNode) {
+      return inferSlotKind(((JXLatentReadNode) val).getRead());
+    }
+    if (val instanceof JXSlotAccessNode) {
+      int slot = ((JXSlotAccessNode) val).getSlot();
+      return slotKinds.peek().getOrDefault(slot, FrameSlotKind.Illegal);
+    }
+    if (val instanceof JXLessThanNode
+        || val instanceof JXLessOrEqualNode
+        || val instanceof JXEqualNode
+        || val instanceof JXLogicalNotNode
+        || val instanceof JXShortCircuitNode) {
+      return FrameSlotKind.Boolean;
+    }
+    if (val instanceof JXAddNode
+        || val instanceof JXSubNode
+        || val instanceof JXMulNode
+        || val instanceof JXDivNode) {
+      FrameSlotKind left = inferSlotKind(((JXBinaryNode) val).getLeftNode());
+      FrameSlotKind right = inferSlotKind(((JXBinaryNode) val).getRightNode());
+      if (left == right && (left == FrameSlotKind.Long || left == FrameSlotKind.Double)) {
+        return left;
+      }
     }
-    return FrameSlotKind.Object;
+    return FrameSlotKind.Illegal;
   }
 }
@@ -0,0 +1,489 @@
+package com.oracle.truffle.jx.parser;
+
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.jx.JanivaLang;
+import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.nodes.JXStatementNode;
+import com.oracle.truffle.jx.runtime.JXModule;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.Token;
+
+/**
+ * The semantic actions the grammar took on a {@link JXNodeFactory} while parsing a source, with
+ * the tokens they were given. Replaying them on a fresh factory builds the same AST without lexing
+ * and parsing the source again, see {@link TemplateCache}.
+ *
+ * <p>Values returned by the factory are referred to by the index of the step that returned them.
+ * Everything the factory derives from them, e.g. slots, folded constants or inlined lambdas, is
+ * derived again on replay, so a trace only depends on the source it was recorded from: imports are
+ * resolved by the replayed {@link JXNodeFactory#importFile} like on a parse.
+ */
+final class ParseTrace {
+
+  enum Action {
+    DEFINE_NAMESPACE(false),
+    IMPORT_FILE(true),
+    BIND_IMPORT(false),
+    BIND_LATENT(true),
+    REGISTER_ROOT(false),
+    START_ARRAY(false),
+    APPEND_ARRAY(false),
+    CLOSE_ARRAY(true),
+    START_OBJECT(false),
+    BIND_VAL(true),
+    END_OBJECT(true),
+    REFER_ATTRIBUTE(true),
+    ATTR_ACCESS(true),
+    DECIMAL(true),
+    STRING_LITERAL(true),
+    BOOLEAN(true),
+    FROZEN_VALUE(true),
+    BINARY(true),
+    FORMAL_PARAMETER(false),
+    DEF_LAMBDA(false),
+    DEFER_LAMBDA_BODY(false),
+    MATERIALIZE(true);
+
+    private static final Action[] VALUES = values();
+
+    final boolean returnsValue;
+
+    Action(boolean returnsValue) {
+      this.returnsValue = returnsValue;
+    }
+  }
+
+  /** No value, e.g. a missing operand. */
+  private static final int NONE = -1;
+
+  private static final Token[] NO_TOKENS = new Token[0];
+
+  private static final class Step {
+    final Action action;
+    final Token[] tokens;
+    /** Values the action was given, {@code null} for a missing list. */
+    final int[] operands;
+
+    final boolean flag;
+
+    Step(Action action, Token[] tokens, int[] operands, boolean flag) {
+      this.action = action;
+      this.tokens = tokens;
+      this.operands = operands;
+      this.flag = flag;
+    }
+  }
+
+  private final List<Step> steps = new ArrayList<>();
+
+  /** Replays the trace on {@code factory}, which is left as the parser would have left it. */
+  void replay(JXNodeFactory factory) {
+    List<Object> values = new ArrayList<>();
+    for (Step step : steps) {
+      Token[] t = step.tokens;
+      Object value = null;
+      switch (step.action) {
+        case DEFINE_NAMESPACE:
+          factory.defineNamespace(t[0]);
+          break;
+        case IMPORT_FILE:
+          value = factory.importFile(t[0], t[1]);
+          break;
+        case BIND_IMPORT:
+          factory.bindImport(t[0], (JXModule) operand(values, step, 0));
+          break;
+        case BIND_LATENT:
+          value = factory.bindLatent(t[0], expression(values, step, 0), step.flag);
+          break;
+        case REGISTER_ROOT:
+          factory.registerRootNode(expression(values, step, 0));
+          break;
+        case START_ARRAY:
+          factory.startArray();
+          break;
+        case APPEND_ARRAY:
+          factory.appendArray(expression(values, step, 0));
+          break;
+        case CLOSE_ARRAY:
+          value = factory.closeArray();
+          break;
+        case START_OBJECT:
+          factory.startObject();
+          break;
+        case BIND_VAL:
+          value = factory.bindVal(t[0], expression(values, step, 0));
+          break;
+        case END_OBJECT:
+          value = factory.endObject(list(values, step, JXStatementNode.class));
+          break;
+        case REFER_ATTRIBUTE:
+          value = factory.referAttribute(t[0], step.flag);
+          break;
+        case ATTR_ACCESS:
+          value = factory.createAttrAccess(expression(values, step, 0), t[0], step.flag);
+          break;
+        case DECIMAL:
+          value = factory.createDecimal(t[0], t[1]);
+          break;
+        case STRING_LITERAL:
+          value = factory.createStringLiteral(t[0], step.flag);
+          break;
+        case BOOLEAN:
+          value = factory.createBoolean(t[0]);
+          break;
+        case FROZEN_VALUE:
+          value = factory.createFrozenValue(t[0]);
+          break;
+        case BINARY:
+          value =
+              factory.createBinary(
+                  t[0], expression(values, step, 0), expression(values, step, 1));
+          break;
+        case FORMAL_PARAMETER:
+          factory.addFormalParameter(t[0]);
+          break;
+        case DEF_LAMBDA:
+          factory.defLambda(t[0]);
+          break;
+        case DEFER_LAMBDA_BODY:
+          factory.deferLambdaBody(t[0]);
+          break;
+        case MATERIALIZE:
+          value = factory.materialize(t[0], t[1], list(values, step, JXExpressionNode.class));
+          break;
+        default:
+          throw new IllegalStateException("Unknown action: " + step.action);
+      }
+      if (step.action.returnsValue) {
+        values.add(value);
+      }
+    }
+  }
+
+  private static Object operand(List<Object> values, Step step, int i) {
+    int id = step.operands[i];
+    return id == NONE ? null : values.get(id);
+  }
+
+  private static JXExpressionNode expression(List<Object> values, Step step, int i) {
+    return (JXExpressionNode) operand(values, step, i);
+  }
+
+  private static <T> List<T> list(List<Object> values, Step step, Class<T> type) {
+    if (step.operands == null) {
+      return null;
+    }
+    List<T> res = new ArrayList<>(step.operands.length);
+    for (int i = 0; i < step.operands.length; i++) {
+      res.add(type.cast(operand(values, step, i)));
+    }
+    return res;
+  }
+
+  void write(DataOutputStream out) throws IOException {
+    out.writeInt(steps.size());
+    for (Step step : steps) {
+      out.writeByte(step.action.ordinal());
+      out.writeByte(step.tokens.length);
+      for (Token token : step.tokens) {
+        writeToken(out, token);
+      }
+      if (step.operands == null) {
+        out.writeInt(NONE);
+      } else {
+        out.writeInt(step.operands.length);
+        for (int operand : step.operands) {
+          out.writeInt(operand);
+        }
+      }
+      out.writeBoolean(step.flag);
+    }
+  }
+
+  /**
+   * @throws IOException if the trace is malformed, e.g. refers to a value no earlier step returned
+   */
+  static ParseTrace read(DataInputStream in) throws IOException {
+    ParseTrace trace = new ParseTrace();
+    int size = in.readInt();
+    int returned = 0;
+    for (int s = 0; s < size; s++) {
+      int ordinal = in.readUnsignedByte();
+      if (ordinal >= Action.VALUES.length) {
+        throw new IOException("Unknown action: " + ordinal);
+      }
+      Action action = Action.VALUES[ordinal];
+      Token[] tokens = new Token[in.readUnsignedByte()];
+      for (int i = 0; i < tokens.length; i++) {
+        tokens[i] = readToken(in);
+      }
+      int count = in.readInt();
+      if (count < NONE) {
+        throw new IOException("Malformed step " + s);
+      }
+      int[] operands = count == NONE ? null : new int[count];
+      for (int i = 0; operands != null && i < count; i++) {
+        operands[i] = in.readInt();
+        if (operands[i] < NONE || operands[i] >= returned) {
+          throw new IOException("Dangling operand " + operands[i] + " in step " + s);
+        }
+      }
+      trace.steps.add(new Step(action, tokens, operands, in.readBoolean()));
+      if (action.returnsValue) {
+        returned++;
+      }
+    }
+    return trace;
+  }
+
+  private static void writeToken(DataOutputStream out, Token token) throws IOException {
+    out.writeBoolean(token != null);
+    if (token == null) {
+      return;
+    }
+    out.writeInt(token.getType());
+    String text = token.getText();
+    out.writeInt(text.length());
+    out.writeChars(text);
+    out.writeInt(token.getStartIndex());
+    out.writeInt(token.getStopIndex());
+    out.writeInt(token.getLine());
+    out.writeInt(token.getCharPositionInLine());
+  }
+
+  private static Token readToken(DataInputStream in) throws IOException {
+    if (!in.readBoolean()) {
+      return null;
+    }
+    int type = in.readInt();
+    char[] text = new char[in.readInt()];
+    for (int i = 0; i < text.length; i++) {
+      text[i] = in.readChar();
+    }
+    CommonToken token = new CommonToken(type, new String(text));
+    token.setStartIndex(in.readInt());
+    token.setStopIndex(in.readInt());
+    token.setLine(in.readInt());
+    token.setCharPositionInLine(in.readInt());
+    return token;
+  }
+
+  /**
+   * A factory that records the actions it is asked to take. The trace is only complete if every
+   * value the grammar handed back was one the factory returned.
+   */
+  static final class Recorder extends JXNodeFactory {
+
+    private final ParseTrace trace = new ParseTrace();
+    private final Map<Object, Integer> ids = new IdentityHashMap<>();
+    private int returned;
+    private boolean complete = true;
+
+    Recorder(JanivaLang language, Source source, TruffleString nsAlias) {
+      super(language, source, nsAlias);
+    }
+
+    /** @return the recorded trace, {@code null} if it cannot be replayed */
+    ParseTrace getTrace() {
+      return complete ? trace : null;
+    }
+
+    private <T> T record(Action action, T value, boolean flag, Object[] operands, Token... tokens) {
+      int[] refs = null;
+      if (operands != null) {
+        refs = new int[operands.length];
+        for (int i = 0; i < operands.length; i++) {
+          refs[i] = idOf(operands[i]);
+        }
+      }
+      trace.steps.add(new Step(action, tokens.length == 0 ? NO_TOKENS : tokens, refs, flag));
+      if (action.returnsValue) {
+        if (value != null) {
+          ids.put(value, returned);
+        }
+        returned++;
+      }
+      return value;
+    }
+
+    private <T> T record(Action action, T value, Token... tokens) {
+      return record(action, value, false, new Object[0], tokens);
+    }
+
+    private int idOf(Object operand) {
+      if (operand == null) {
+        return NONE;
+      }
+      Integer id = ids.get(operand);
+      if (id == null) {
+        complete = false;
+        return NONE;
+      }
+      return id;
+    }
+
+    @Override
+    public void defineNamespace(Token token) {
+      super.defineNamespace(token);
+      record(Action.DEFINE_NAMESPACE, null, token);
+    }
+
+    @Override
+    public JXModule importFile(Token importedName, Token alias) {
+      return record(Action.IMPORT_FILE, super.importFile(importedName, alias), importedName, alias);
+    }
+
+    @Override
+    public void bindImport(Token valName, JXModule imported) {
+      super.bindImport(valName, imported);
+      record(Action.BIND_IMPORT, null, false, new Object[] {imported}, valName);
+    }
+
+    @Override
+    public JXStatementNode bindLatent(Token valName, JXExpressionNode val, boolean isFunction) {
+      return record(
+          Action.BIND_LATENT,
+          super.bindLatent(valName, val, isFunction),
+          isFunction,
+          new Object[] {val},
+          valName);
+    }
+
+    @Override
+    public void registerRootNode(JXExpressionNode node) {
+      super.registerRootNode(node);
+      record(Action.REGISTER_ROOT, null, false, new Object[] {node});
+    }
+
+    @Override
+    public void startArray() {
+      super.startArray();
+      record(Action.START_ARRAY, null);
+    }
+
+    @Override
+    public void appendArray(JXExpressionNode n) {
+      super.appendArray(n);
+      record(Action.APPEND_ARRAY, null, false, new Object[] {n});
+    }
+
+    @Override
+    public JXExpressionNode closeArray() {
+      return record(Action.CLOSE_ARRAY, super.closeArray());
+    }
+
+    @Override
+    public void startObject() {
+      super.startObject();
+      record(Action.START_OBJECT, null);
+    }
+
+    @Override
+    public JXStatementNode bindVal(Token valName, JXExpressionNode val) {
+      return record(
+          Action.BIND_VAL, super.bindVal(valName, val), false, new Object[] {val}, valName);
+    }
+
+    @Override
+    public JXExpressionNode endObject(List<JXStatementNode> nodes) {
+      // the list is read before the call, which may reorder its elements
+      Object[] operands = nodes == null ? null : nodes.toArray();
+      return record(Action.END_OBJECT, super.endObject(nodes), false, operands);
+    }
+
+    @Override
+    public JXExpressionNode referAttribute(Token attributeName, boolean isFunc) {
+      return record(
+          Action.REFER_ATTRIBUTE,
+          super.referAttribute(attributeName, isFunc),
+          isFunc,
+          new Object[0],
+          attributeName);
+    }
+
+    @Override
+    public JXExpressionNode createAttrAccess(JXExpressionNode val, Token attr, boolean isObject) {
+      return record(
+          Action.ATTR_ACCESS,
+          super.createAttrAccess(val, attr, isObject),
+          isObject,
+          new Object[] {val},
+          attr);
+    }
+
+    @Override
+    public JXExpressionNode createDecimal(Token whole, Token dec) {
+      return record(Action.DECIMAL, super.createDecimal(whole, dec), whole, dec);
+    }
+
+    @Override
+    public JXExpressionNode createStringLiteral(Token literalToken, boolean removeQuotes) {
+      return record(
+          Action.STRING_LITERAL,
+          super.createStringLiteral(literalToken, removeQuotes),
+          removeQuotes,
+          new Object[0],
+          literalToken);
+    }
+
+    @Override
+    public JXExpressionNode createBoolean(Token boolLiteral) {
+      return record(Action.BOOLEAN, super.createBoolean(boolLiteral), boolLiteral);
+    }
+
+    @Override
+    public JXExpressionNode createFrozenValue(Token json) {
+      return record(Action.FROZEN_VALUE, super.createFrozenValue(json), json);
+    }
+
+    @Override
+    public JXExpressionNode createBinary(
+        Token opToken, JXExpressionNode leftNode, JXExpressionNode rightNode) {
+      return record(
+          Action.BINARY,
+          super.createBinary(opToken, leftNode, rightNode),
+          false,
+          new Object[] {leftNode, rightNode},
+          opToken);
+    }
+
+    @Override
+    public void addFormalParameter(Token name) {
+      super.addFormalParameter(name);
+      record(Action.FORMAL_PARAMETER, null, name);
+    }
+
+    @Override
+    public void defLambda(Token name) {
+      super.defLambda(name);
+      record(Action.DEF_LAMBDA, null, name);
+    }
+
+    @Override
+    public void deferLambdaBody(Token bodyStart) {
+      super.deferLambdaBody(bodyStart);
+      record(Action.DEFER_LAMBDA_BODY, null, bodyStart);
+    }
+
+    @Override
+    public JXExpressionNode materialize(
+        Token namespaceToken, Token lambdaName, List<JXExpressionNode> parameters) {
+      Object[] operands = parameters == null ? null : parameters.toArray();
+      return record(
+          Action.MATERIALIZE,
+          super.materialize(namespaceToken, lambdaName, parameters),
+          false,
+          operands,
+          namespaceToken,
+          lambdaName);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.oracle.truffle.jx.parser;
+
+import com.oracle.truffle.api.source.Source;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * Lexer input reading the characters of a {@link Source} in place, rather than a copy of them as
+ * {@link org.antlr.v4.runtime.CharStreams} makes. Indices are UTF-16 char indices, like those of the
+ * source itself. Tokens do not copy their text either: it is only taken out of the source when it is
+ * asked for, see {@link #getText}.
+ */
+final class SourceCharStream implements CharStream {
+
+  private final CharSequence chars;
+  private final String name;
+  private int position;
+
+  SourceCharStream(Source source) {
+    this.chars = source.getCharacters();
+    this.name = source.getName() == null ? IntStream.UNKNOWN_SOURCE_NAME : source.getName();
+  }
+
+  @Override
+  public String getText(Interval interval) {
+    int start = Math.min(interval.a, chars.length());
+    int stop = Math.min(interval.b + 1, chars.length());
+    return start >= stop ? "" : chars.subSequence(start, stop).toString();
+  }
+
+  @Override
+  public void consume() {
+    if (position >= chars.length()) {
+      assert LA(1) == IntStream.EOF;
+      throw new IllegalStateException("cannot consume EOF");
+    }
+    position++;
+  }
+
+  @Override
+  public int LA(int i) {
+    if (i == 0) {
+      return 0; // undefined
+    }
+    int index = i < 0 ? position + i : position + i - 1;
+    if (index < 0 || index >= chars.length()) {
+      return IntStream.EOF;
+    }
+    return chars.charAt(index);
+  }
+
+  /** The whole source is always at hand, so marks cost nothing. */
+  @Override
+  public int mark() {
+    return -1;
+  }
+
+  @Override
+  public void release(int marker) {}
+
+  @Override
+  public int index() {
+    return position;
+  }
+
+  @Override
+  public void seek(int index) {
+    position = index;
+  }
+
+  @Override
+  public int size() {
+    return chars.length();
+  }
+
+  @Override
+  public String getSourceName() {
+    return name;
+  }
+
+  @Override
+  public String toString() {
+    return chars.toString();
+  }
+}
@@ -0,0 +1,115 @@
+package com.oracle.truffle.jx.parser;
+
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.jx.JanivaLang;
+import com.xmbsmdsj.janiva.SourceDigest;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the {@link ParseTrace} of each parsed source in a directory, so a later process builds the
+ * AST of an unchanged source by replaying the trace instead of lexing and parsing it again. See
+ * {@link com.oracle.truffle.jx.JXOptions#TemplateCache}.
+ *
+ * <p>An entry is named after the content hash of the source and the alias it is imported as, so an
+ * edited source simply misses. Imports are looked up by the replay like on a parse, and hit or miss
+ * on their own content. Entries of another {@link #FORMAT_VERSION} or that cannot be read are
+ * ignored and rewritten; failing to write one only costs the next process a parse.
+ */
+public final class TemplateCache {
+
+  /** Bumped whenever the grammar or the actions of {@link JXNodeFactory} change. */
+  static final int FORMAT_VERSION = 4;
+
+  private static final int MAGIC = 0x4A585452;
+  private static final String SUFFIX = ".jxt";
+
+  private static final Logger logger = LoggerFactory.getLogger(TemplateCache.class);
+
+  private final Path directory;
+
+  public TemplateCache(Path directory) {
+    this.directory = directory;
+  }
+
+  public RootNode parse(JanivaLang language, Source source, TruffleString nsAlias) {
+    String hash = SourceDigest.contentHash(source);
+    Path entry =
+        directory.resolve(
+            hash + (nsAlias == null ? "" : "-" + nsAlias.toJavaStringUncached()) + SUFFIX);
+    ParseTrace trace = read(entry, hash);
+    if (trace != null) {
+      JXNodeFactory factory = new JXNodeFactory(language, source, nsAlias);
+      trace.replay(factory);
+      return factory.getRootNode();
+    }
+    // the last recorder is the one whose parse succeeded
+    ParseTrace.Recorder[] recorder = new ParseTrace.Recorder[1];
+    RootNode root =
+        JanivaLangParser.parseSL(
+            language,
+            source,
+            () -> recorder[0] = new ParseTrace.Recorder(language, source, nsAlias));
+    if (recorder[0].getTrace() != null) {
+      write(entry, hash, recorder[0].getTrace());
+    }
+    return root;
+  }
+
+  private static ParseTrace read(Path entry, String hash) {
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !hash.equals(in.readUTF())) {
+        return null;
+      }
+      return ParseTrace.read(in);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      logger.debug("Ignoring unreadable template cache entry {}", entry, e);
+      return null;
+    }
+  }
+
+  private void write(Path entry, String hash, ParseTrace trace) {
+    Path tmp = null;
+    try {
+      Files.createDirectories(directory);
+      // written aside and moved in place, so concurrent processes never read half an entry
+      tmp = Files.createTempFile(directory, hash, ".tmp");
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(hash);
+        trace.write(out);
+      }
+      Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      logger.debug("Cannot write template cache entry {}", entry, e);
+      deleteQuietly(tmp);
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      logger.debug("Cannot delete {}", file, e);
+    }
+  }
+}
@@ -68,6 +68,23 @@ public final class JXBigNumber implements TruffleObject, Comparable<JXBigNumber>
     return i >= -INT_MAX_SAFE_FLOAT && i <= INT_MAX_SAFE_FLOAT;
   }
 
+  private static final int SMALL_CACHE_LOW = -128;
+  private static final int SMALL_CACHE_HIGH = 1024;
+
+  /**
+   * Small integers are by far the most common numbers in templates (indices, counters, ports...),
+   * so widening them from {@code long} hands out shared instances instead of allocating.
+   */
+  private static final JXBigNumber[] SMALL_CACHE = createSmallCache();
+
+  private static JXBigNumber[] createSmallCache() {
+    JXBigNumber[] cache = new JXBigNumber[SMALL_CACHE_HIGH - SMALL_CACHE_LOW + 1];
+    for (int i = 0; i < cache.length; i++) {
+      cache[i] = new JXBigNumber(BigDecimal.valueOf(i + SMALL_CACHE_LOW));
+    }
+    return cache;
+  }
+
   private final BigDecimal value;
 
   public JXBigNumber(BigDecimal value) {
@@ -78,6 +95,31 @@ public final class JXBigNumber implements TruffleObject, Comparable<JXBigNumber>
     this.value = BigDecimal.valueOf(value);
   }
 
+  public static JXBigNumber valueOf(long value) {
+    if (value >= SMALL_CACHE_LOW && value <= SMALL_CACHE_HIGH) {
+      return SMALL_CACHE[(int) value - SMALL_CACHE_LOW];
+    }
+    return new JXBigNumber(BigDecimal.valueOf(value));
+  }
+
+  /**
+   * @param value a double that exactly represents a decimal number
+   * @return number with the canonical decimal representation of {@code value}
+   */
+  @TruffleBoundary
+  public static JXBigNumber valueOf(double value) {
+    return new JXBigNumber(BigDecimal.valueOf(value));
+  }
+
+  /**
+   * Render a double the same way the equivalent {@link BigDecimal} would be rendered, so the
+   * representation of a number doesn't depend on whether it took the double fast path.
+   */
+  @TruffleBoundary
+  public static String doubleToString(double value) {
+    return BigDecimal.valueOf(value).toPlainString();
+  }
+
   public BigDecimal getValue() {
     return value;
   }
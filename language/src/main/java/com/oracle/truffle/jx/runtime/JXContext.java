@@ -55,14 +55,25 @@ import com.oracle.truffle.api.interop.*;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.jx.JXException;
+import com.oracle.truffle.jx.JXOptions;
 import com.oracle.truffle.jx.JanivaLang;
 import com.oracle.truffle.jx.builtins.*;
+import com.oracle.truffle.jx.runtime.io.JXExported;
+import com.oracle.truffle.jx.runtime.io.JXJsonBuffer;
+import com.oracle.truffle.jx.runtime.io.JXOutputChannel;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.graalvm.polyglot.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * The run-time state of SL during execution. The context is created by the {@link JanivaLang}. It
@@ -74,21 +85,31 @@ import org.graalvm.polyglot.Context;
  */
 public final class JXContext {
 
+  private static final Logger logger = LoggerFactory.getLogger(JXContext.class);
+
   private final JanivaLang language;
   @CompilationFinal private Env env;
+  @CompilationFinal private boolean streamOutput;
   private final BufferedReader input;
-  private final PrintWriter output;
+  private JXOutputChannel outputChannel;
+  private PrintWriter output;
   private final JXFunctionRegistry functionRegistry;
   private final AllocationReporter allocationReporter;
   private final List<JXFunction> shutdownHooks = new ArrayList<>();
+  /** Marks a module whose export is being evaluated, to report import cycles. */
+  private static final Object MODULE_LOADING = new Object();
+
+  private final JXJsonBuffer jsonBuffer = new JXJsonBuffer();
+  private final Map<JXModule, Object> moduleExports = new HashMap<>();
 
   public JXContext(
       JanivaLang language,
       TruffleLanguage.Env env,
       List<NodeFactory<? extends JXBuiltinNode>> externalBuiltins) {
     this.env = env;
+    this.streamOutput = env.getOptions().get(JXOptions.StreamOutput);
     this.input = new BufferedReader(new InputStreamReader(env.in()));
-    this.output = new PrintWriter(env.out(), true);
+    bindOutput(env);
     this.language = language;
     this.allocationReporter = env.lookup(AllocationReporter.class);
     this.functionRegistry = new JXFunctionRegistry(language);
@@ -107,6 +128,22 @@ public final class JXContext {
    */
   public void patchContext(Env newEnv) {
     this.env = newEnv;
+    this.streamOutput = newEnv.getOptions().get(JXOptions.StreamOutput);
+    // what was written so far belongs to the old output
+    closeOutput();
+    bindOutput(newEnv);
+  }
+
+  private void bindOutput(Env env) {
+    int bufferSize = Math.max(1, env.getOptions().get(JXOptions.OutputBufferSize));
+    this.outputChannel = new JXOutputChannel(env.out(), bufferSize, env::createSystemThread);
+    this.output =
+        new PrintWriter(new OutputStreamWriter(outputChannel, StandardCharsets.UTF_8), true);
+  }
+
+  /** @return whether a root {@code @stdout} writes its document while evaluating it */
+  public boolean isStreamOutput() {
+    return streamOutput;
   }
 
   /** Return the current Truffle environment. */
@@ -130,6 +167,27 @@ public final class JXContext {
     return output;
   }
 
+  /**
+   * The buffered channel {@link #getOutput()} and {@code @stdout} write to, bound to {@link
+   * Env#out()}. Its content is written in the background, and in full at the end of each
+   * evaluation, see {@link #flushOutput()}.
+   */
+  public JXOutputChannel getOutputChannel() {
+    return outputChannel;
+  }
+
+  /** Writes all pending output. Called when an evaluation returns. */
+  public void flushOutput() {
+    output.flush();
+    outputChannel.flushBuffered();
+  }
+
+  /** Writes all pending output and stops the writer. Called when the context is finalized. */
+  public void closeOutput() {
+    output.flush();
+    outputChannel.close();
+  }
+
   /** Returns the registry of all functions that are currently defined. */
   public JXFunctionRegistry getFunctionRegistry() {
     return functionRegistry;
@@ -167,6 +225,55 @@ public final class JXContext {
     getFunctionRegistry().register(JXStrings.getSLRootName(target.getRootNode()), target);
   }
 
+  /**
+   * Returns the value exported by an imported module, evaluating the module the first time it is
+   * requested in this context. All importers of a module share the same value.
+   */
+  @TruffleBoundary
+  public Object getModuleExport(JXModule module, Node location) {
+    Object value = moduleExports.get(module);
+    if (value == MODULE_LOADING) {
+      throw new JXException("Cyclic import of " + module.getKey(), location);
+    }
+    if (value != null) {
+      return value;
+    }
+    moduleExports.put(module, MODULE_LOADING);
+    logger.debug("Evaluating module {}", module.getKey());
+    try {
+      Object exported = module.getCallTarget().call();
+      if (!(exported instanceof JXExported)) {
+        throw new JXException("Value cannot be imported: " + exported.getClass(), location);
+      }
+      value = ((JXExported) exported).getValue();
+    } catch (RuntimeException e) {
+      moduleExports.remove(module);
+      throw e;
+    }
+    moduleExports.put(module, value);
+    return value;
+  }
+
+  /**
+   * Returns the context's reusable serialization buffer. If it is already in use, e.g. a lambda
+   * evaluated during serialization writes output on its own, a fresh buffer is handed out instead.
+   * Callers must give the buffer back through {@link #releaseJsonBuffer(JXJsonBuffer)}.
+   */
+  @TruffleBoundary
+  public JXJsonBuffer acquireJsonBuffer() {
+    if (jsonBuffer.tryAcquire()) {
+      return jsonBuffer;
+    }
+    JXJsonBuffer buffer = new JXJsonBuffer();
+    buffer.tryAcquire();
+    return buffer;
+  }
+
+  @TruffleBoundary
+  public void releaseJsonBuffer(JXJsonBuffer buffer) {
+    buffer.release();
+  }
+
   /*
    * Methods for object creation / object property access.
    */
@@ -179,6 +286,7 @@ public final class JXContext {
    */
   public static Object fromForeignValue(Object a) {
     if (a instanceof Long
+        || a instanceof Double
         || a instanceof JXBigNumber
         || a instanceof String
         || a instanceof TruffleString
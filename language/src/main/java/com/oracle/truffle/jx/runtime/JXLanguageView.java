@@ -136,7 +136,11 @@ public final class JXLanguageView implements TruffleObject {
            * this if-else cascade should fold after partial evaluation.
            */
           if (type == JXType.NUMBER) {
-            return longToString(interop.asLong(delegate));
+            // a double like 3.0 keeps its fraction digit, as the equal BigDecimal would
+            if (!(delegate instanceof Double) && interop.fitsInLong(delegate)) {
+              return longToString(interop.asLong(delegate));
+            }
+            return JXBigNumber.doubleToString(interop.asDouble(delegate));
           } else if (type == JXType.BOOLEAN) {
             return Boolean.toString(interop.asBoolean(delegate));
           } else if (type == JXType.STRING) {
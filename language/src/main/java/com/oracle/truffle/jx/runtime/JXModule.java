@@ -0,0 +1,32 @@
+package com.oracle.truffle.jx.runtime;
+
+import com.oracle.truffle.api.RootCallTarget;
+
+/**
+ * A parsed source file, evaluated as is or imported. Modules are shared by every context and
+ * importer within an engine (see {@link com.oracle.truffle.jx.JanivaLang#lookupModule}); the value
+ * a module exports is evaluated once per context by {@link JXContext#getModuleExport}.
+ */
+public final class JXModule {
+
+  private final String key;
+  private final RootCallTarget callTarget;
+
+  public JXModule(String key, RootCallTarget callTarget) {
+    this.key = key;
+    this.callTarget = callTarget;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public RootCallTarget getCallTarget() {
+    return callTarget;
+  }
+
+  @Override
+  public String toString() {
+    return "module " + key;
+  }
+}
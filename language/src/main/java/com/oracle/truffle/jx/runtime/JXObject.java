@@ -49,6 +49,7 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnknownIdentifierException;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
@@ -84,10 +85,20 @@ import com.oracle.truffle.jx.JanivaLang;
 public final class JXObject extends DynamicObject implements TruffleObject {
   protected static final int CACHE_LIMIT = 3;
 
+  /**
+   * Shape flag of objects that must not change, e.g. literals folded at parse time, which are
+   * shared by every evaluation and every context of the engine.
+   */
+  public static final int FROZEN = 1;
+
   public JXObject(Shape shape) {
     super(shape);
   }
 
+  static boolean isFrozen(JXObject object, DynamicObjectLibrary objectLibrary) {
+    return (objectLibrary.getShapeFlags(object) & FROZEN) != 0;
+  }
+
   @ExportMessage
   boolean hasLanguage() {
     return true;
@@ -144,7 +155,10 @@ public final class JXObject extends DynamicObject implements TruffleObject {
       String member,
       @Cached @Shared("fromJavaStringNode") TruffleString.FromJavaStringNode fromJavaStringNode,
       @CachedLibrary("this") DynamicObjectLibrary objectLibrary)
-      throws UnknownIdentifierException {
+      throws UnknownIdentifierException, UnsupportedMessageException {
+    if (isFrozen(this, objectLibrary)) {
+      throw UnsupportedMessageException.create();
+    }
     TruffleString memberTS = fromJavaStringNode.execute(member, JanivaLang.STRING_ENCODING);
     if (objectLibrary.containsKey(this, memberTS)) {
       objectLibrary.removeKey(this, memberTS);
@@ -161,8 +175,6 @@ public final class JXObject extends DynamicObject implements TruffleObject {
   }
 
   @ExportMessage(name = "isMemberReadable")
-  @ExportMessage(name = "isMemberModifiable")
-  @ExportMessage(name = "isMemberRemovable")
   boolean existsMember(
       String member,
       @Cached @Shared("fromJavaStringNode") TruffleString.FromJavaStringNode fromJavaStringNode,
@@ -171,9 +183,22 @@ public final class JXObject extends DynamicObject implements TruffleObject {
         this, fromJavaStringNode.execute(member, JanivaLang.STRING_ENCODING));
   }
 
+  @ExportMessage(name = "isMemberModifiable")
+  @ExportMessage(name = "isMemberRemovable")
+  boolean isMemberMutable(
+      String member,
+      @Cached @Shared("fromJavaStringNode") TruffleString.FromJavaStringNode fromJavaStringNode,
+      @CachedLibrary("this") DynamicObjectLibrary objectLibrary) {
+    return !isFrozen(this, objectLibrary)
+        && existsMember(member, fromJavaStringNode, objectLibrary);
+  }
+
   @ExportMessage
-  boolean isMemberInsertable(String member, @CachedLibrary("this") InteropLibrary receivers) {
-    return !receivers.isMemberExisting(this, member);
+  boolean isMemberInsertable(
+      String member,
+      @CachedLibrary("this") InteropLibrary receivers,
+      @CachedLibrary("this") DynamicObjectLibrary objectLibrary) {
+    return !isFrozen(this, objectLibrary) && !receivers.isMemberExisting(this, member);
   }
 
   /** {@link DynamicObjectLibrary} provides the polymorphic inline cache for reading properties. */
@@ -199,7 +224,11 @@ public final class JXObject extends DynamicObject implements TruffleObject {
       String name,
       Object value,
       @Cached @Shared("fromJavaStringNode") TruffleString.FromJavaStringNode fromJavaStringNode,
-      @CachedLibrary("this") DynamicObjectLibrary objectLibrary) {
+      @CachedLibrary("this") DynamicObjectLibrary objectLibrary)
+      throws UnsupportedMessageException {
+    if (isFrozen(this, objectLibrary)) {
+      throw UnsupportedMessageException.create();
+    }
     objectLibrary.put(this, fromJavaStringNode.execute(name, JanivaLang.STRING_ENCODING), value);
   }
 }
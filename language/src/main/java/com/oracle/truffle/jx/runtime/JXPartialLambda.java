@@ -2,91 +2,132 @@ package com.oracle.truffle.jx.runtime;
 
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.interop.*;
-import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
-import com.oracle.truffle.api.nodes.UnexpectedResultException;
-import com.oracle.truffle.api.object.DynamicObject;
-import com.oracle.truffle.api.object.DynamicObjectLibrary;
-import com.oracle.truffle.api.object.Shape;
-import com.oracle.truffle.api.strings.TruffleString;
 import com.oracle.truffle.jx.statics.lambda.LambdaTemplate;
 
+/**
+ * A lambda with the arguments applied to it so far. Instances are immutable: applying more
+ * arguments creates a new instance with a copy of the argument array, so a partial lambda can be
+ * shared freely, e.g. a curried helper bound to a latent attribute.
+ *
+ * <p>The argument array is sized to the arity of the lambda, so once every argument is applied it
+ * is passed to the call target as is.
+ */
 @ExportLibrary(InteropLibrary.class)
-public class JXPartialLambda extends DynamicObject implements TruffleObject {
+public final class JXPartialLambda implements TruffleObject {
 
-  private static final TruffleString PROP_OFFSET =
-      TruffleString.fromJavaStringUncached("__OFFSET", TruffleString.Encoding.UTF_8);
-  private static final TruffleString PROP_ARGS =
-      TruffleString.fromJavaStringUncached("__ARGS", TruffleString.Encoding.UTF_8);
+  private static final Object[] NO_ARGS = new Object[0];
 
-  private static final Shape SHAPE = Shape.newBuilder().layout(JXPartialLambda.class).build();
-
-  @DynamicField private int _i1;
-  @DynamicField private Object _o1;
-
-  private CallTarget callTarget;
-  private Object[] partialArgs;
-  private int offset;
-  private LambdaTemplate template;
+  private final CallTarget callTarget;
+  private final LambdaTemplate template;
+  private final int arity;
+  private final Object[] args;
+  private final int offset;
 
   public JXPartialLambda(CallTarget callTarget, LambdaTemplate template) {
-    super(SHAPE);
+    this(callTarget, template, template.parameterCount(), NO_ARGS, 0);
+  }
+
+  private JXPartialLambda(
+      CallTarget callTarget, LambdaTemplate template, int arity, Object[] args, int offset) {
     this.callTarget = callTarget;
-    this.partialArgs = new Object[template.parameterCount()];
-    this.offset = 0;
     this.template = template;
+    this.arity = arity;
+    this.args = args;
+    this.offset = offset;
   }
 
-  @ExportMessage
-  public boolean isExecutable() {
-    return !isPartialApplication();
+  public LambdaTemplate getTemplate() {
+    return template;
   }
 
-  private boolean isPartialApplication() {
-    return offset < template.parameterCount();
+  public CallTarget getCallTarget() {
+    return callTarget;
   }
 
-  @ExportMessage
-  public Object execute(Object[] args, @CachedLibrary("this") DynamicObjectLibrary library) {
-    return callTarget.call(getArgs(library));
+  public int getArity() {
+    return arity;
   }
 
-  public JXPartialLambda mergeArgs(Object[] args, DynamicObjectLibrary library) {
-    if (args.length == 0) {
-      return this;
+  /** @return number of arguments applied so far */
+  public int getOffset() {
+    return offset;
+  }
+
+  /** Copies the arguments applied so far to the start of {@code dst}. */
+  public void copyArgs(Object[] dst) {
+    System.arraycopy(args, 0, dst, 0, offset);
+  }
+
+  /**
+   * @param newArgs arguments array of length {@link #getArity()}, holding {@code newOffset}
+   *     arguments; it must not be modified afterwards
+   * @return this lambda with {@code newArgs} applied instead of its own arguments
+   */
+  public JXPartialLambda withArgs(Object[] newArgs, int newOffset) {
+    return new JXPartialLambda(callTarget, template, arity, newArgs, newOffset);
+  }
+
+  /**
+   * Builds the arguments for calling this lambda with {@code extra} applied after the arguments it
+   * already holds.
+   *
+   * @return the full argument array, or {@code null} if the lambda would still be partial
+   */
+  public Object[] argsWith(Object[] extra) {
+    int count = offset + extra.length;
+    if (count > arity) {
+      template.throwParameterLenNotMatch(count);
+    }
+    if (count < arity) {
+      return null;
     }
-    if (args.length + offset > template.parameterCount()) {
-      template.throwParameterLenNotMatch(args.length + offset);
+    Object[] res = new Object[arity];
+    System.arraycopy(args, 0, res, 0, offset);
+    System.arraycopy(extra, 0, res, offset, extra.length);
+    return res;
+  }
+
+  /** @return a new lambda with {@code extra} applied, which may be complete */
+  public JXPartialLambda apply(Object[] extra) {
+    if (extra.length == 0) {
+      return this;
     }
-    for (Object arg : args) {
-      partialArgs[offset] = arg;
-      offset++;
+    int count = offset + extra.length;
+    if (count > arity) {
+      template.throwParameterLenNotMatch(count);
     }
-    flushState(library);
-    return this;
+    Object[] res = new Object[arity];
+    System.arraycopy(args, 0, res, 0, offset);
+    System.arraycopy(extra, 0, res, offset, extra.length);
+    return withArgs(res, count);
   }
 
-  public JXPartialLambda clone(DynamicObjectLibrary dynamicObjectLibrary) {
-    JXPartialLambda res = new JXPartialLambda(this.callTarget, this.template);
-    try {
-      res.offset = dynamicObjectLibrary.getIntOrDefault(this, PROP_OFFSET, 0);
-      // values must be immutable
-      if (offset >= 0)
-        System.arraycopy(this.getArgs(dynamicObjectLibrary), 0, res.partialArgs, 0, offset);
-    } catch (UnexpectedResultException e) {
-      throw new RuntimeException(e);
+  /**
+   * Applies {@code extra} outside of an AST, e.g. from a lazy array view. Nodes should use {@link
+   * com.oracle.truffle.jx.nodes.expression.JXLambdaCallNode} instead.
+   */
+  public Object applyUncached(Object... extra) {
+    Object[] callArgs = argsWith(extra);
+    if (callArgs == null) {
+      return apply(extra);
     }
-    res.flushState(dynamicObjectLibrary);
-    return res;
+    return callTarget.call(callArgs);
+  }
+
+  /** @return the arguments to call the lambda with; only valid once it is executable */
+  public Object[] getCallArgs() {
+    return args;
   }
 
-  public void flushState(DynamicObjectLibrary library) {
-    library.put(this, PROP_ARGS, this.partialArgs);
-    library.put(this, PROP_OFFSET, offset);
+  @ExportMessage
+  public boolean isExecutable() {
+    return offset >= arity;
   }
 
-  public Object[] getArgs(DynamicObjectLibrary library) {
-    return (Object[]) library.getOrDefault(this, PROP_ARGS, new Object[] {});
+  @ExportMessage
+  public Object execute(@SuppressWarnings("unused") Object[] arguments) {
+    return callTarget.call(args);
   }
 }
@@ -85,7 +85,7 @@ public final class JXType implements TruffleObject {
    * additional checks need to be performed (similar to number checking for SLBigNumber).
    */
   public static final JXType NUMBER =
-      new JXType("Number", (l, v) -> l.fitsInLong(v) || v instanceof JXBigNumber);
+      new JXType("Number", (l, v) -> l.fitsInLong(v) || l.fitsInDouble(v) || v instanceof JXBigNumber);
   public static final JXType NULL = new JXType("NULL", (l, v) -> l.isNull(v));
   public static final JXType STRING = new JXType("String", (l, v) -> l.isString(v));
   public static final JXType BOOLEAN = new JXType("Boolean", (l, v) -> l.isBoolean(v));
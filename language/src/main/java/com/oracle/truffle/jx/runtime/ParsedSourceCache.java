@@ -0,0 +1,55 @@
+package com.oracle.truffle.jx.runtime;
+
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.xmbsmdsj.janiva.SourceDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sources parsed by a language instance, shared by all contexts of its engine, so rendering the
+ * same template again skips parsing. The most recently used {@code capacity} sources are kept; an
+ * evicted source is simply parsed again the next time it is needed.
+ *
+ * <p>Sources are keyed by {@link SourceDigest#sourceKey}, i.e. content hash and location, as
+ * imports resolve relative to the importing file, and by namespace alias, as a source imported
+ * under another alias defines its lambdas in another namespace.
+ *
+ * <p>Not thread safe, the language guards it (see {@link
+ * com.oracle.truffle.jx.JanivaLang#lookupModule}).
+ */
+public final class ParsedSourceCache {
+
+  public static final int DEFAULT_CAPACITY = 256;
+
+  private final Map<String, JXModule> entries;
+
+  public ParsedSourceCache(int capacity) {
+    this.entries =
+        new LinkedHashMap<String, JXModule>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, JXModule> eldest) {
+            return size() > capacity;
+          }
+        };
+  }
+
+  /** @param nsAlias alias the source is imported as, {@code null} for a source evaluated as is */
+  public static String keyOf(Source source, TruffleString nsAlias) {
+    return SourceDigest.sourceKey(source)
+        + "@"
+        + (nsAlias == null ? "" : nsAlias.toJavaStringUncached());
+  }
+
+  public JXModule get(String key) {
+    return entries.get(key);
+  }
+
+  public void put(String key, JXModule module) {
+    entries.put(key, module);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+}
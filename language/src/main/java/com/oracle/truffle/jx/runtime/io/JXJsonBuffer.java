@@ -0,0 +1,217 @@
+package com.oracle.truffle.jx.runtime.io;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.jx.JXException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer the JSON writer serializes into. A buffer is meant to be reused across
+ * serializations (see {@link com.oracle.truffle.jx.runtime.JXContext#acquireJsonBuffer()}), so the
+ * backing array only grows until it fits the largest document written so far.
+ */
+public final class JXJsonBuffer {
+
+  /* Layout tokens shared by everything that writes JSON into a buffer. */
+  public static final byte[] OBJECT_OPEN = ascii("{\n");
+  public static final byte[] MEMBER_SEP = ascii(", \n");
+  public static final byte[] OBJECT_CLOSE = ascii("\n}");
+  public static final byte[] KEY_SEP = ascii(": ");
+  public static final byte[] ARRAY_OPEN = ascii("[ ");
+  public static final byte[] ELEMENT_SEP = ascii(", ");
+  public static final byte[] ARRAY_CLOSE = ascii(" ]");
+
+  private static final int INITIAL_CAPACITY = 8192;
+  private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+  /** Bytes that need a two character escape, indexed by byte value; {@code 0} means none. */
+  private static final byte[] SHORT_ESCAPES = new byte[0x80];
+
+  static {
+    SHORT_ESCAPES['"'] = '"';
+    SHORT_ESCAPES['\\'] = '\\';
+    SHORT_ESCAPES['\b'] = 'b';
+    SHORT_ESCAPES['\f'] = 'f';
+    SHORT_ESCAPES['\n'] = 'n';
+    SHORT_ESCAPES['\r'] = 'r';
+    SHORT_ESCAPES['\t'] = 't';
+  }
+
+  private byte[] bytes;
+  private int length;
+  private boolean inUse;
+  private OutputStream sink;
+
+  public JXJsonBuffer() {
+    this.bytes = new byte[INITIAL_CAPACITY];
+  }
+
+  public boolean tryAcquire() {
+    if (inUse) {
+      return false;
+    }
+    inUse = true;
+    length = 0;
+    return true;
+  }
+
+  public void release() {
+    inUse = false;
+    sink = null;
+  }
+
+  /**
+   * Streams the content to {@code os} whenever the buffer is full instead of growing it, so the
+   * memory used stays bounded no matter how large the document gets. {@link #writeTo} writes the
+   * remainder.
+   */
+  public void streamTo(OutputStream os) {
+    this.sink = os;
+  }
+
+  public int length() {
+    return length;
+  }
+
+  public void write(byte b) {
+    ensureCapacity(1);
+    bytes[length++] = b;
+  }
+
+  public void write(byte[] src) {
+    write(src, 0, src.length);
+  }
+
+  public void write(byte[] src, int offset, int len) {
+    ensureCapacity(len);
+    System.arraycopy(src, offset, bytes, length, len);
+    length += len;
+  }
+
+  /** Writes an ASCII-only token such as a formatted number. */
+  public void writeAscii(String token) {
+    int len = token.length();
+    ensureCapacity(len);
+    for (int i = 0; i < len; i++) {
+      bytes[length++] = (byte) token.charAt(i);
+    }
+  }
+
+  /** Writes the decimal digits of {@code value} straight into the buffer. */
+  public void writeLong(long value) {
+    if (value == Long.MIN_VALUE) {
+      writeAscii("-9223372036854775808");
+      return;
+    }
+    ensureCapacity(20);
+    if (value < 0) {
+      bytes[length++] = '-';
+      value = -value;
+    }
+    int start = length;
+    do {
+      bytes[length++] = (byte) ('0' + (value % 10));
+      value /= 10;
+    } while (value != 0);
+    // digits were produced least significant first
+    for (int i = start, j = length - 1; i < j; i++, j--) {
+      byte tmp = bytes[i];
+      bytes[i] = bytes[j];
+      bytes[j] = tmp;
+    }
+  }
+
+  /**
+   * Writes UTF-8 encoded string content as a quoted JSON string. Runs of bytes that need no escaping
+   * are copied in bulk; multi-byte UTF-8 sequences never need escaping and are copied as is.
+   */
+  public void writeQuoted(byte[] utf8, int offset, int len) {
+    write((byte) '"');
+    int end = offset + len;
+    int runStart = offset;
+    for (int i = offset; i < end; i++) {
+      int b = utf8[i];
+      if (b >= 0 && (b < 0x20 || SHORT_ESCAPES[b] != 0)) {
+        write(utf8, runStart, i - runStart);
+        writeEscape(b);
+        runStart = i + 1;
+      }
+    }
+    write(utf8, runStart, end - runStart);
+    write((byte) '"');
+  }
+
+  private void writeEscape(int b) {
+    byte shortEscape = SHORT_ESCAPES[b];
+    if (shortEscape != 0) {
+      ensureCapacity(2);
+      bytes[length++] = '\\';
+      bytes[length++] = shortEscape;
+    } else {
+      ensureCapacity(6);
+      bytes[length++] = '\\';
+      bytes[length++] = 'u';
+      bytes[length++] = '0';
+      bytes[length++] = '0';
+      bytes[length++] = HEX[b >> 4];
+      bytes[length++] = HEX[b & 0xF];
+    }
+  }
+
+  /** Pre-renders {@code "key": } for a member key, so it can be cached per shape. */
+  @TruffleBoundary
+  public static byte[] quoteKey(String key) {
+    JXJsonBuffer tmp = new JXJsonBuffer();
+    byte[] utf8 = key.getBytes(StandardCharsets.UTF_8);
+    tmp.writeQuoted(utf8, 0, utf8.length);
+    tmp.write((byte) ':');
+    tmp.write((byte) ' ');
+    return Arrays.copyOf(tmp.bytes, tmp.length);
+  }
+
+  /** @return a copy of the content, e.g. to cache the serialized form of a constant */
+  @TruffleBoundary
+  public byte[] toByteArray() {
+    return Arrays.copyOf(bytes, length);
+  }
+
+  @TruffleBoundary
+  public void writeTo(OutputStream os) throws IOException {
+    os.write(bytes, 0, length);
+    os.flush();
+    length = 0;
+  }
+
+  private void ensureCapacity(int extra) {
+    if (length + extra > bytes.length) {
+      if (sink != null) {
+        drainToSink();
+      }
+      if (length + extra > bytes.length) {
+        grow(length + extra);
+      }
+    }
+  }
+
+  @TruffleBoundary
+  private void drainToSink() {
+    try {
+      sink.write(bytes, 0, length);
+    } catch (IOException e) {
+      throw new JXException("Get io exception when writing output: " + e.getMessage());
+    }
+    length = 0;
+  }
+
+  @TruffleBoundary
+  private void grow(int minCapacity) {
+    int newCapacity = Math.max(bytes.length << 1, minCapacity);
+    bytes = Arrays.copyOf(bytes, newCapacity);
+  }
+
+  private static byte[] ascii(String s) {
+    return s.getBytes(StandardCharsets.US_ASCII);
+  }
+}
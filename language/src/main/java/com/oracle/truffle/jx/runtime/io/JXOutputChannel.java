@@ -0,0 +1,202 @@
+package com.oracle.truffle.jx.runtime.io;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.jx.JXException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Output of a context, double buffered. Writes fill the front buffer; once it reaches the
+ * threshold it is handed to a background writer and the other buffer takes its place, so
+ * evaluation only waits on I/O when the writer is a whole buffer behind.
+ *
+ * <p>{@link #flush()} does not write anything, which keeps per-document flushes of the JSON
+ * writer cheap. Content still buffered is written by {@link #flushBuffered()}, at the end of each
+ * evaluation, and by {@link #close()}, when the context is finalized. The underlying stream is
+ * flushed but not closed, it belongs to the embedder.
+ */
+public final class JXOutputChannel extends OutputStream {
+
+  private final OutputStream out;
+  private final ThreadFactory threads;
+  private final Object lock = new Object();
+
+  private byte[] front;
+  private int frontLength;
+
+  /* Guarded by lock. The buffer not being filled is either spare or pending, never both. */
+  private byte[] spare;
+  private byte[] pending;
+  private int pendingLength;
+  private IOException failure;
+  private boolean closed;
+
+  private Thread writer;
+
+  /** @param threads creates the background writer, e.g. {@code Env::createSystemThread} */
+  public JXOutputChannel(OutputStream out, int threshold, ThreadFactory threads) {
+    this.out = out;
+    this.threads = threads;
+    this.front = new byte[threshold];
+    this.spare = new byte[threshold];
+  }
+
+  @Override
+  @TruffleBoundary
+  public void write(int b) {
+    ensureOpen();
+    front[frontLength++] = (byte) b;
+    if (frontLength == front.length) {
+      handOff();
+    }
+  }
+
+  @Override
+  @TruffleBoundary
+  public void write(byte[] b, int off, int len) {
+    ensureOpen();
+    while (len > 0) {
+      int n = Math.min(len, front.length - frontLength);
+      System.arraycopy(b, off, front, frontLength, n);
+      frontLength += n;
+      off += n;
+      len -= n;
+      if (frontLength == front.length) {
+        handOff();
+      }
+    }
+  }
+
+  /** Content is written at thresholds and by {@link #flushBuffered()}, see the class comment. */
+  @Override
+  public void flush() {}
+
+  /** Waits for the writer, then writes and flushes what is still buffered. */
+  @TruffleBoundary
+  public void flushBuffered() {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      // the writer is idle until the next hand off, which only this thread does
+      awaitWriter();
+    }
+    writeFront();
+  }
+
+  /** Writes what is still buffered, then stops the writer. */
+  @Override
+  @TruffleBoundary
+  public void close() {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      awaitWriter();
+      closed = true;
+      lock.notifyAll();
+    }
+    writeFront();
+    if (writer != null) {
+      try {
+        writer.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void writeFront() {
+    try {
+      out.write(front, 0, frontLength);
+      out.flush();
+      frontLength = 0;
+    } catch (IOException e) {
+      throw new JXException("Get io exception when writing output: " + e.getMessage());
+    }
+    rethrowFailure();
+  }
+
+  private void handOff() {
+    synchronized (lock) {
+      awaitWriter();
+      rethrowFailure();
+      pending = front;
+      pendingLength = frontLength;
+      front = spare;
+      spare = null;
+      frontLength = 0;
+      lock.notifyAll();
+    }
+    if (writer == null) {
+      writer = threads.newThread(this::drain);
+      writer.start();
+    }
+  }
+
+  /** Must hold the lock. */
+  private void awaitWriter() {
+    boolean interrupted = false;
+    while (pending != null) {
+      try {
+        lock.wait();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void drain() {
+    while (true) {
+      byte[] buffer;
+      int length;
+      synchronized (lock) {
+        while (pending == null && !closed) {
+          try {
+            lock.wait();
+          } catch (InterruptedException e) {
+            return;
+          }
+        }
+        if (pending == null) {
+          return;
+        }
+        buffer = pending;
+        length = pendingLength;
+      }
+      IOException error = null;
+      try {
+        out.write(buffer, 0, length);
+        out.flush();
+      } catch (IOException e) {
+        error = e;
+      }
+      synchronized (lock) {
+        if (error != null && failure == null) {
+          failure = error;
+        }
+        spare = buffer;
+        pending = null;
+        lock.notifyAll();
+      }
+    }
+  }
+
+  private void ensureOpen() {
+    if (closed) {
+      throw new JXException("Output is closed");
+    }
+  }
+
+  private void rethrowFailure() {
+    IOException e = failure;
+    if (e != null) {
+      failure = null;
+      throw new JXException("Get io exception when writing output: " + e.getMessage());
+    }
+  }
+}
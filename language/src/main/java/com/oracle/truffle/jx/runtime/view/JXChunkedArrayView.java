@@ -0,0 +1,32 @@
+package com.oracle.truffle.jx.runtime.view;
+
+/** Splits another array into consecutive slices of {@code chunkSize} elements. */
+public final class JXChunkedArrayView extends JXLazyArrayView {
+
+  private final Object source;
+  private final long chunkSize;
+
+  public JXChunkedArrayView(Object source, long chunkSize) {
+    this.source = source;
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  protected long computeSize() {
+    return (sizeOf(source) + chunkSize - 1) / chunkSize;
+  }
+
+  @Override
+  protected long sizeAtMost(long limit) {
+    if (limit >= Long.MAX_VALUE / chunkSize) {
+      return Math.min(size(), limit);
+    }
+    long elements = sizeAtMost(source, limit * chunkSize);
+    return Math.min((elements + chunkSize - 1) / chunkSize, limit);
+  }
+
+  @Override
+  protected Object computeElement(long index) {
+    return JXSlicedArrayView.of(source, index * chunkSize, (index + 1) * chunkSize);
+  }
+}
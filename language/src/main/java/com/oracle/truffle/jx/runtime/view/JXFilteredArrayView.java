@@ -0,0 +1,61 @@
+package com.oracle.truffle.jx.runtime.view;
+
+import com.oracle.truffle.jx.JXException;
+import com.oracle.truffle.jx.runtime.JXPartialLambda;
+import java.util.Arrays;
+
+/**
+ * Keeps the elements of another array a predicate returns true for. The source is scanned only as
+ * far as the elements read so far require, so taking the first few matches of a long pipeline
+ * stops early.
+ */
+public final class JXFilteredArrayView extends JXLazyArrayView {
+
+  private final Object source;
+  private final JXPartialLambda predicate;
+
+  private Object[] matches = new Object[8];
+  private int matchCount;
+  private long scanned;
+
+  public JXFilteredArrayView(Object source, JXPartialLambda predicate) {
+    this.source = source;
+    this.predicate = predicate;
+  }
+
+  @Override
+  protected long computeSize() {
+    scanUntil(Long.MAX_VALUE);
+    return matchCount;
+  }
+
+  @Override
+  protected long sizeAtMost(long limit) {
+    scanUntil(limit);
+    return Math.min(matchCount, limit);
+  }
+
+  @Override
+  protected Object computeElement(long index) {
+    scanUntil(index + 1);
+    return matches[(int) index];
+  }
+
+  /** Scans the source until {@code count} matches are known or the source is exhausted. */
+  private void scanUntil(long count) {
+    // only ask the source for one more element at a time, it may be lazy itself
+    while (matchCount < count && sizeAtMost(source, scanned + 1) > scanned) {
+      Object element = elementOf(source, scanned++);
+      Object keep = predicate.applyUncached(element);
+      if (!(keep instanceof Boolean)) {
+        throw new JXException("Filter predicate must return a boolean, getting: " + keep);
+      }
+      if ((boolean) keep) {
+        if (matchCount == matches.length) {
+          matches = Arrays.copyOf(matches, matches.length << 1);
+        }
+        matches[matchCount++] = element;
+      }
+    }
+  }
+}
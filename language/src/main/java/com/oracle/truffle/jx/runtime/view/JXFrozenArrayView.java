@@ -0,0 +1,184 @@
+package com.oracle.truffle.jx.runtime.view;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidArrayIndexException;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * An array literal evaluated at parse time. It never changes, so one instance is shared by every
+ * evaluation of the literal and every context of the engine. Arrays of numbers or booleans of a
+ * single kind are packed into primitive storage; see {@link #of(Object[])}.
+ */
+@ExportLibrary(InteropLibrary.class)
+public abstract class JXFrozenArrayView extends AbstractArrayView {
+
+  /**
+   * @param elements run-time values of the elements, which must be immutable themselves
+   * @return a frozen array with the most compact storage that holds {@code elements}
+   */
+  @TruffleBoundary
+  public static JXFrozenArrayView of(Object[] elements) {
+    if (elements.length > 0 && allOf(elements, Long.class)) {
+      long[] packed = new long[elements.length];
+      for (int i = 0; i < packed.length; i++) {
+        packed[i] = (Long) elements[i];
+      }
+      return new Longs(packed);
+    }
+    if (elements.length > 0 && allOf(elements, Double.class)) {
+      double[] packed = new double[elements.length];
+      for (int i = 0; i < packed.length; i++) {
+        packed[i] = (Double) elements[i];
+      }
+      return new Doubles(packed);
+    }
+    if (elements.length > 0 && allOf(elements, Boolean.class)) {
+      boolean[] packed = new boolean[elements.length];
+      for (int i = 0; i < packed.length; i++) {
+        packed[i] = (Boolean) elements[i];
+      }
+      return new Booleans(packed);
+    }
+    if (elements.length > 0 && allOf(elements, TruffleString.class)) {
+      TruffleString[] packed = new TruffleString[elements.length];
+      System.arraycopy(elements, 0, packed, 0, packed.length);
+      return new Objects(packed);
+    }
+    return new Objects(elements.clone());
+  }
+
+  private static boolean allOf(Object[] elements, Class<?> type) {
+    for (Object element : elements) {
+      if (element == null || element.getClass() != type) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public abstract int size();
+
+  @ExportMessage
+  @Override
+  protected long getArraySize() {
+    return size();
+  }
+
+  @ExportMessage
+  @Override
+  public boolean isArrayElementReadable(long index) {
+    return index >= 0 && index < size();
+  }
+
+  @ExportLibrary(InteropLibrary.class)
+  public static final class Longs extends JXFrozenArrayView {
+    private final long[] values;
+
+    Longs(long[] values) {
+      this.values = values;
+    }
+
+    public long get(int index) {
+      return values[index];
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+
+    @ExportMessage
+    @Override
+    protected Object readArrayElement(long index) throws InvalidArrayIndexException {
+      if (!isArrayElementReadable(index)) {
+        throw InvalidArrayIndexException.create(index);
+      }
+      return values[(int) index];
+    }
+  }
+
+  @ExportLibrary(InteropLibrary.class)
+  public static final class Doubles extends JXFrozenArrayView {
+    private final double[] values;
+
+    Doubles(double[] values) {
+      this.values = values;
+    }
+
+    public double get(int index) {
+      return values[index];
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+
+    @ExportMessage
+    @Override
+    protected Object readArrayElement(long index) throws InvalidArrayIndexException {
+      if (!isArrayElementReadable(index)) {
+        throw InvalidArrayIndexException.create(index);
+      }
+      return values[(int) index];
+    }
+  }
+
+  @ExportLibrary(InteropLibrary.class)
+  public static final class Booleans extends JXFrozenArrayView {
+    private final boolean[] values;
+
+    Booleans(boolean[] values) {
+      this.values = values;
+    }
+
+    public boolean get(int index) {
+      return values[index];
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+
+    @ExportMessage
+    @Override
+    protected Object readArrayElement(long index) throws InvalidArrayIndexException {
+      if (!isArrayElementReadable(index)) {
+        throw InvalidArrayIndexException.create(index);
+      }
+      return values[(int) index];
+    }
+  }
+
+  /** Strings, mixed elements and nested frozen values. */
+  @ExportLibrary(InteropLibrary.class)
+  public static final class Objects extends JXFrozenArrayView {
+    private final Object[] values;
+
+    Objects(Object[] values) {
+      this.values = values;
+    }
+
+    public Object get(int index) {
+      return values[index];
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+
+    @ExportMessage
+    @Override
+    protected Object readArrayElement(long index) throws InvalidArrayIndexException {
+      if (!isArrayElementReadable(index)) {
+        throw InvalidArrayIndexException.create(index);
+      }
+      return values[(int) index];
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package com.oracle.truffle.jx.runtime.view;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidArrayIndexException;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.jx.JXException;
+import java.util.Arrays;
+
+/**
+ * Base of the lazy pipeline views ({@code @map}/{@code @filter} over views, {@code @slice}, {@code
+ * @zip}, {@code @chunk}). Elements are computed on demand by pulling them through the chain of
+ * views, so a pipeline runs as a single pass without intermediate arrays.
+ *
+ * <p>Elements are computed in order, each one once: they are kept as they are computed, so reading
+ * one again, e.g. serializing the view twice, evaluates no lambda again. A read ahead computes the
+ * elements up to the one read, and no further.
+ */
+@ExportLibrary(InteropLibrary.class)
+public abstract class JXLazyArrayView extends AbstractArrayView {
+
+  private Object[] computed = new Object[8];
+  private int computedCount;
+  private long size = -1;
+
+  /** @return number of elements, computing elements only if the size depends on them */
+  protected abstract long computeSize();
+
+  protected abstract Object computeElement(long index);
+
+  /**
+   * @return {@code min(size, limit)}, computing no more than {@code limit} elements where the size
+   *     depends on them
+   */
+  protected long sizeAtMost(long limit) {
+    return Math.min(size(), limit);
+  }
+
+  @ExportMessage
+  @Override
+  @TruffleBoundary
+  protected final Object readArrayElement(long index)
+      throws UnsupportedMessageException, InvalidArrayIndexException {
+    if (index < 0 || sizeAtMost(index + 1) <= index) {
+      throw InvalidArrayIndexException.create(index);
+    }
+    while (computedCount <= index) {
+      if (computedCount == computed.length) {
+        computed = Arrays.copyOf(computed, computed.length << 1);
+      }
+      computed[computedCount] = computeElement(computedCount);
+      computedCount++;
+    }
+    return computed[(int) index];
+  }
+
+  @ExportMessage
+  @Override
+  @TruffleBoundary
+  protected final long getArraySize() {
+    return size();
+  }
+
+  @ExportMessage
+  @Override
+  @TruffleBoundary
+  public boolean isArrayElementReadable(long index) {
+    return index >= 0 && sizeAtMost(index + 1) > index;
+  }
+
+  protected final long size() {
+    if (size < 0) {
+      size = computeSize();
+    }
+    return size;
+  }
+
+  /** Size of the array a view is built on, bounded by {@code limit}. */
+  @TruffleBoundary
+  protected static long sizeAtMost(Object array, long limit) {
+    if (array instanceof JXLazyArrayView) {
+      return ((JXLazyArrayView) array).sizeAtMost(limit);
+    }
+    return Math.min(sizeOf(array), limit);
+  }
+
+  @TruffleBoundary
+  protected static long sizeOf(Object array) {
+    try {
+      return InteropLibrary.getUncached().getArraySize(array);
+    } catch (UnsupportedMessageException e) {
+      throw new JXException("Expecting an array, getting: " + array);
+    }
+  }
+
+  @TruffleBoundary
+  protected static Object elementOf(Object array, long index) {
+    try {
+      return InteropLibrary.getUncached().readArrayElement(array, index);
+    } catch (InteropException e) {
+      throw new JXException("Cannot read array element: " + e.getMessage());
+    }
+  }
+}
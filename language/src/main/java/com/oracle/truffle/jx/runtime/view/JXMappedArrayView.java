@@ -0,0 +1,30 @@
+package com.oracle.truffle.jx.runtime.view;
+
+import com.oracle.truffle.jx.runtime.JXPartialLambda;
+
+/** Applies a lambda to the elements of another array when they are read. */
+public final class JXMappedArrayView extends JXLazyArrayView {
+
+  private final Object source;
+  private final JXPartialLambda lambda;
+
+  public JXMappedArrayView(Object source, JXPartialLambda lambda) {
+    this.source = source;
+    this.lambda = lambda;
+  }
+
+  @Override
+  protected long computeSize() {
+    return sizeOf(source);
+  }
+
+  @Override
+  protected long sizeAtMost(long limit) {
+    return sizeAtMost(source, limit);
+  }
+
+  @Override
+  protected Object computeElement(long index) {
+    return lambda.applyUncached(elementOf(source, index));
+  }
+}
@@ -0,0 +1,43 @@
+package com.oracle.truffle.jx.runtime.view;
+
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidArrayIndexException;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+/** A two element array, as produced by {@code @zip}. */
+@ExportLibrary(InteropLibrary.class)
+public final class JXPairArrayView extends AbstractArrayView {
+
+  private final Object first;
+  private final Object second;
+
+  public JXPairArrayView(Object first, Object second) {
+    this.first = first;
+    this.second = second;
+  }
+
+  @ExportMessage
+  @Override
+  protected Object readArrayElement(long index) throws InvalidArrayIndexException {
+    if (index == 0) {
+      return first;
+    }
+    if (index == 1) {
+      return second;
+    }
+    throw InvalidArrayIndexException.create(index);
+  }
+
+  @ExportMessage
+  @Override
+  protected long getArraySize() {
+    return 2;
+  }
+
+  @ExportMessage
+  @Override
+  public boolean isArrayElementReadable(long index) {
+    return index == 0 || index == 1;
+  }
+}
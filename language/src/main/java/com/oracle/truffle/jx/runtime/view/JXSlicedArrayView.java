@@ -0,0 +1,42 @@
+package com.oracle.truffle.jx.runtime.view;
+
+/** Elements {@code [from, to)} of another array. */
+public final class JXSlicedArrayView extends JXLazyArrayView {
+
+  private final Object source;
+  private final long from;
+  private final long to;
+
+  private JXSlicedArrayView(Object source, long from, long to) {
+    this.source = source;
+    this.from = from;
+    this.to = to;
+  }
+
+  /** Creates a slice, collapsing a slice of a slice into a single view. */
+  public static JXSlicedArrayView of(Object source, long from, long to) {
+    from = Math.max(0, from);
+    to = Math.max(from, to);
+    if (source instanceof JXSlicedArrayView) {
+      JXSlicedArrayView inner = (JXSlicedArrayView) source;
+      long start = inner.from + from;
+      return new JXSlicedArrayView(inner.source, start, Math.min(inner.to, inner.from + to));
+    }
+    return new JXSlicedArrayView(source, from, to);
+  }
+
+  @Override
+  protected long computeSize() {
+    return Math.max(0, sizeAtMost(source, to) - from);
+  }
+
+  @Override
+  protected long sizeAtMost(long limit) {
+    return Math.max(0, sizeAtMost(source, Math.min(to, from + limit)) - from);
+  }
+
+  @Override
+  protected Object computeElement(long index) {
+    return elementOf(source, from + index);
+  }
+}
@@ -0,0 +1,28 @@
+package com.oracle.truffle.jx.runtime.view;
+
+/** Pairs up the elements of two arrays; the shorter one determines the size. */
+public final class JXZippedArrayView extends JXLazyArrayView {
+
+  private final Object left;
+  private final Object right;
+
+  public JXZippedArrayView(Object left, Object right) {
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  protected long computeSize() {
+    return sizeAtMost(right, sizeOf(left));
+  }
+
+  @Override
+  protected long sizeAtMost(long limit) {
+    return sizeAtMost(right, sizeAtMost(left, limit));
+  }
+
+  @Override
+  protected Object computeElement(long index) {
+    return new JXPairArrayView(elementOf(left, index), elementOf(right, index));
+  }
+}
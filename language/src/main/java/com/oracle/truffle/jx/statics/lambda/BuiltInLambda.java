@@ -3,10 +3,20 @@ package com.oracle.truffle.jx.statics.lambda;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.strings.TruffleString;
 import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.nodes.controlflow.JXChunkNodeGen;
+import com.oracle.truffle.jx.nodes.controlflow.JXFilterNode;
+import com.oracle.truffle.jx.nodes.controlflow.JXFlatMapNode;
 import com.oracle.truffle.jx.nodes.controlflow.JXIfNode;
+import com.oracle.truffle.jx.nodes.controlflow.JXMapNode;
 import com.oracle.truffle.jx.nodes.controlflow.JXRangeNodeGen;
+import com.oracle.truffle.jx.nodes.controlflow.JXReduceNode;
+import com.oracle.truffle.jx.nodes.controlflow.JXSliceNodeGen;
+import com.oracle.truffle.jx.nodes.controlflow.JXZipNodeGen;
 import com.oracle.truffle.jx.nodes.core.JXExportNodeGen;
 import com.oracle.truffle.jx.nodes.core.JXStdoutNodeGen;
+import com.oracle.truffle.jx.nodes.expression.value.JXConstantNode;
+import com.oracle.truffle.jx.nodes.expression.value.JXNumberLiteralNode;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -15,7 +25,14 @@ public enum BuiltInLambda implements BuiltInLambdaFactory {
   IF {
     @Override
     public JXExpressionNode create(List<JXExpressionNode> arguments, Source source) {
-      return new JXIfNode(arguments.get(0), arguments.get(1), arguments.get(2));
+      JXExpressionNode condition = arguments.get(0);
+      if (condition instanceof JXConstantNode) {
+        Object value = ((JXConstantNode) condition).getConstantValue();
+        if (value instanceof Boolean) {
+          return (Boolean) value ? arguments.get(1) : arguments.get(2);
+        }
+      }
+      return new JXIfNode(condition, arguments.get(1), arguments.get(2));
     }
 
     @Override
@@ -34,6 +51,106 @@ public enum BuiltInLambda implements BuiltInLambdaFactory {
       return TruffleString.fromJavaStringUncached("range", TruffleString.Encoding.UTF_8);
     }
   },
+  MAP {
+    @Override
+    public JXExpressionNode create(List<JXExpressionNode> arguments, Source source) {
+      return new JXMapNode(arguments.get(0), arguments.get(1));
+    }
+
+    @Override
+    public TruffleString lambdaName() {
+      return TruffleString.fromJavaStringUncached("map", TruffleString.Encoding.UTF_8);
+    }
+  },
+  FILTER {
+    @Override
+    public JXExpressionNode create(List<JXExpressionNode> arguments, Source source) {
+      return new JXFilterNode(arguments.get(0), arguments.get(1));
+    }
+
+    @Override
+    public TruffleString lambdaName() {
+      return TruffleString.fromJavaStringUncached("filter", TruffleString.Encoding.UTF_8);
+    }
+  },
+  REDUCE {
+    @Override
+    public JXExpressionNode create(List<JXExpressionNode> arguments, Source source) {
+      return new JXReduceNode(arguments.get(0), arguments.get(1), arguments.get(2));
+    }
+
+    @Override
+    public TruffleString lambdaName() {
+      return TruffleString.fromJavaStringUncached("reduce", TruffleString.Encoding.UTF_8);
+    }
+  },
+  FOLD {
+    @Override
+    public JXExpressionNode create(List<JXExpressionNode> arguments, Source source) {
+      return new JXReduceNode(arguments.get(0), arguments.get(1), arguments.get(2));
+    }
+
+    @Override
+    public TruffleString lambdaName() {
+      return TruffleString.fromJavaStringUncached("fold", TruffleString.Encoding.UTF_8);
+    }
+  },
+  FLAT_MAP {
+    @Override
+    public JXExpressionNode create(List<JXExpressionNode> arguments, Source source) {
+      return new JXFlatMapNode(arguments.get(0), arguments.get(1));
+    }
+
+    @Override
+    public TruffleString lambdaName() {
+      return TruffleString.fromJavaStringUncached("flatMap", TruffleString.Encoding.UTF_8);
+    }
+  },
+  SLICE {
+    @Override
+    public JXExpressionNode create(List<JXExpressionNode> arguments, Source source) {
+      return JXSliceNodeGen.create(arguments.get(0), arguments.get(1), arguments.get(2));
+    }
+
+    @Override
+    public TruffleString lambdaName() {
+      return TruffleString.fromJavaStringUncached("slice", TruffleString.Encoding.UTF_8);
+    }
+  },
+  TAKE {
+    @Override
+    public JXExpressionNode create(List<JXExpressionNode> arguments, Source source) {
+      return JXSliceNodeGen.create(
+          new JXNumberLiteralNode(BigDecimal.ZERO, false), arguments.get(0), arguments.get(1));
+    }
+
+    @Override
+    public TruffleString lambdaName() {
+      return TruffleString.fromJavaStringUncached("take", TruffleString.Encoding.UTF_8);
+    }
+  },
+  ZIP {
+    @Override
+    public JXExpressionNode create(List<JXExpressionNode> arguments, Source source) {
+      return JXZipNodeGen.create(arguments.get(0), arguments.get(1));
+    }
+
+    @Override
+    public TruffleString lambdaName() {
+      return TruffleString.fromJavaStringUncached("zip", TruffleString.Encoding.UTF_8);
+    }
+  },
+  CHUNK {
+    @Override
+    public JXExpressionNode create(List<JXExpressionNode> arguments, Source source) {
+      return JXChunkNodeGen.create(arguments.get(0), arguments.get(1));
+    }
+
+    @Override
+    public TruffleString lambdaName() {
+      return TruffleString.fromJavaStringUncached("chunk", TruffleString.Encoding.UTF_8);
+    }
+  },
   EXPORT {
     @Override
     public JXExpressionNode create(List<JXExpressionNode> arguments, Source source) {
@@ -1,9 +1,11 @@
 package com.oracle.truffle.jx.statics.lambda;
 
+import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.strings.TruffleString;
 import com.oracle.truffle.jx.parser.exceptions.JXSyntaxError;import org.slf4j.Logger;import org.slf4j.LoggerFactory;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class LambdaRegistry {
@@ -22,20 +24,39 @@ public class LambdaRegistry {
   private final Map<TruffleString, LambdaTemplate> registrations = new HashMap<>();
   private static final Map<TruffleString, LambdaTemplate> builtIn = new ConcurrentHashMap<>();
 
+  /** @return the lambda with its body built, or {@code null} if there is none of that name */
   public LambdaTemplate lookupLambdaBody(TruffleString lambdaName) {
-    return registrations.get(lambdaName);
+    LambdaTemplate template = registrations.get(lambdaName);
+    if (template != null) {
+      template.ensureBody();
+    }
+    return template;
   }
 
   public void register(TruffleString name, LambdaTemplate template) {
     if (builtIn.containsKey(name)) {
       throw new JXSyntaxError("Cannot register built-in lambdas");
     }
-    if (registrations.containsKey(name)) {
+    LambdaTemplate existing = registrations.get(name);
+    // the same source parsed again, e.g. once evicted from the parse cache, defines it anew
+    if (existing != null && !sameSource(existing.getSource(), template.getSource())) {
       throw new JXSyntaxError("lambda overloading is not supported");
     }
     registrations.put(name, template);
   }
 
+  /*
+   * Not Source#equals, which also tells apart the file systems of engines: registries are shared
+   * by all of them.
+   */
+  private static boolean sameSource(Source a, Source b) {
+    return a != null
+        && b != null
+        && a.getName().equals(b.getName())
+        && Objects.equals(a.getPath(), b.getPath())
+        && a.getCharacters().toString().contentEquals(b.getCharacters());
+  }
+
   public static void registerBuiltIn(LambdaTemplate template) {
     builtIn.putIfAbsent(template.getName(), template);
   }
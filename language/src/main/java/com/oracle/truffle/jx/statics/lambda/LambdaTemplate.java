@@ -1,14 +1,26 @@
 package com.oracle.truffle.jx.statics.lambda;
 
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.api.utilities.CyclicAssumption;
 import com.oracle.truffle.jx.JXException;
+import com.oracle.truffle.jx.JanivaLang;
 import com.oracle.truffle.jx.nodes.JXExpressionNode;
+import com.oracle.truffle.jx.nodes.core.JXLambdaExecutor;
 import java.util.ArrayList;
 import java.util.List;
 
 public class LambdaTemplate {
 
+  /** Builds the body of a template whose body was deferred, see {@link #deferBody}. */
+  public interface BodyBuilder {
+    void build(LambdaTemplate template);
+  }
+
   enum State {
     DEFINED,
     FINALIZED
@@ -16,22 +28,60 @@ public class LambdaTemplate {
 
   private final List<TruffleString> parameterNames;
   private final TruffleString name;
+  /** Source defining the lambda, {@code null} for built-ins. */
+  private final Source source;
+
   private JXExpressionNode body;
   private FrameDescriptor descriptor;
 
+  /**
+   * Copy of the body that is never executed, for call sites to inline; {@code null} if calls are
+   * not to be inlined. See {@link com.oracle.truffle.jx.parser.LambdaInliner}.
+   */
+  private volatile JXExpressionNode inlineBody;
+
+  /**
+   * Builder of the body, until it is built. Templates are only looked up while sources are parsed,
+   * which the language serializes.
+   */
+  private BodyBuilder pendingBody;
+
   /** State is used for early expose of partially defined lambdas */
   private volatile State state;
 
+  /**
+   * The one and only call target of this template. It's created lazily on first materialization,
+   * so that lambdas that are defined but never referenced don't cost a root node.
+   */
+  private volatile RootCallTarget callTarget;
+
+  /**
+   * Call sites speculate that {@link #callTarget} never changes once it's created. The assumption
+   * is invalidated on the DEFINED -> FINALIZED transition, so nothing cached against a lambda that
+   * was exposed early (e.g. a recursive reference inside its own body) survives finalization.
+   */
+  private final CyclicAssumption callTargetStable;
+
   public LambdaTemplate(TruffleString name) {
+    this(name, null);
+  }
+
+  public LambdaTemplate(TruffleString name, Source source) {
     this.parameterNames = new ArrayList<>();
     this.name = name;
+    this.source = source;
     this.state = State.DEFINED;
+    this.callTargetStable = new CyclicAssumption(name.toJavaStringUncached());
   }
 
   public TruffleString getName() {
     return this.name;
   }
 
+  public Source getSource() {
+    return this.source;
+  }
+
   public void addFormalParam(TruffleString paramName) {
     this.parameterNames.add(paramName);
   }
@@ -50,6 +100,35 @@ public class LambdaTemplate {
     }
     this.descriptor = descriptor;
     this.state = State.FINALIZED;
+    invalidateCallTarget();
+  }
+
+  /** Defer building the body until the template is first looked up. */
+  public void deferBody(BodyBuilder builder) {
+    this.pendingBody = builder;
+  }
+
+  /**
+   * Build the body if it was deferred. A lookup while the body is being built, i.e. from a
+   * recursive call within it, finds the template not finalized yet, like one defined eagerly.
+   */
+  public void ensureBody() {
+    BodyBuilder builder = this.pendingBody;
+    if (builder == null) {
+      return;
+    }
+    this.pendingBody = null;
+    try {
+      builder.build(this);
+    } catch (RuntimeException e) {
+      // report the error again on the next lookup, rather than expose a lambda without a body
+      this.pendingBody = builder;
+      throw e;
+    }
+  }
+
+  public boolean isFinalized() {
+    return this.state == State.FINALIZED;
   }
 
   public void addBody(JXExpressionNode body) {
@@ -64,6 +143,47 @@ public class LambdaTemplate {
     return this.descriptor;
   }
 
+  public JXExpressionNode getInlineBody() {
+    return this.inlineBody;
+  }
+
+  public void setInlineBody(JXExpressionNode inlineBody) {
+    this.inlineBody = inlineBody;
+  }
+
+  /**
+   * Get the call target executing the body of this lambda, creating it on first request.
+   *
+   * @param language language the executor root node belongs to
+   * @return the same call target for every request, until the template is modified
+   */
+  @TruffleBoundary
+  public RootCallTarget getCallTarget(JanivaLang language) {
+    RootCallTarget target = this.callTarget;
+    if (target == null) {
+      synchronized (this) {
+        target = this.callTarget;
+        if (target == null) {
+          if (this.state != State.FINALIZED) {
+            throw new JXException("Cannot execute lambda before it's finalized: " + this.name);
+          }
+          target = new JXLambdaExecutor(language, descriptor, body, name).getCallTarget();
+          this.callTarget = target;
+        }
+      }
+    }
+    return target;
+  }
+
+  public Assumption getCallTargetStable() {
+    return callTargetStable.getAssumption();
+  }
+
+  private synchronized void invalidateCallTarget() {
+    this.callTarget = null;
+    callTargetStable.invalidate();
+  }
+
   public void throwParameterLenNotMatch(int actual) {
     throw new JXException(
         "Parameter length does not match, expecting: "
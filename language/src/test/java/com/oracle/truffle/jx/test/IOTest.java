@@ -1,6 +1,11 @@
 package com.oracle.truffle.jx.test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 import com.oracle.truffle.jx.JanivaLang;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Value;
 import org.junit.After;
@@ -32,4 +37,42 @@ public class IOTest {
           Value v = context.eval(JanivaLang.ID, src);
         });
   }
+
+  @Test
+  public void testStreamingStdout() {
+    TestUtil.runWithStackTrace(
+        () -> {
+          String src = TestUtil.readResourceAsString("io/ut-stream-to-std.janiva");
+          ByteArrayOutputStream assembled = new ByteArrayOutputStream();
+          try (Context c = Context.newBuilder(JanivaLang.ID).out(assembled).build()) {
+            c.eval(JanivaLang.ID, src);
+          }
+          // a tiny buffer makes the output go through several background writes
+          ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+          try (Context c =
+              Context.newBuilder(JanivaLang.ID)
+                  .allowExperimentalOptions(true)
+                  .option("janiva.StreamOutput", "true")
+                  .option("janiva.OutputBufferSize", "16")
+                  .out(streamed)
+                  .build()) {
+            assertTrue(c.eval(JanivaLang.ID, src).isNull());
+          }
+          assertTrue(assembled.size() > 0);
+          assertEquals(
+              new String(assembled.toByteArray(), StandardCharsets.UTF_8),
+              new String(streamed.toByteArray(), StandardCharsets.UTF_8));
+        });
+  }
+
+  @Test
+  public void testOutputWrittenOnReturn() {
+    String src = TestUtil.readResourceAsString("io/ut-stream-to-std.janiva");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (Context c = Context.newBuilder(JanivaLang.ID).out(out).build()) {
+      c.eval(JanivaLang.ID, src);
+      // before the context is closed
+      assertTrue(out.size() > 0);
+    }
+  }
 }
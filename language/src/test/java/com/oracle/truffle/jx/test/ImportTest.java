@@ -1,11 +1,20 @@
 package com.oracle.truffle.jx.test;
 
+import ch.qos.logback.classic.spi.ILoggingEvent;
 import com.oracle.truffle.jx.JanivaLang;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
 import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 import org.junit.After;
@@ -53,4 +62,231 @@ public class ImportTest {
           }
         });
   }
+
+  @Test
+  public void testDiamondImport() {
+    TestUtil.runWithStackTrace(
+        () -> {
+          try {
+            Source s =
+                Source.newBuilder(
+                        JanivaLang.ID,
+                        Objects.requireNonNull(
+                            this.getClass()
+                                .getClassLoader()
+                                .getResource("io/ut-import-diamond.janiva")))
+                    .build();
+            Value[] result = new Value[1];
+            List<ILoggingEvent> events = TestUtil.captureLogs(() -> result[0] = context.eval(s));
+            Value v = result[0];
+            // both sides import ut-export, which is still parsed and evaluated only once
+            List<ILoggingEvent> shared =
+                events.stream()
+                    .filter(e -> e.getFormattedMessage().contains("ut-export"))
+                    .collect(Collectors.toList());
+            Assert.assertEquals(1, TestUtil.count(shared, "Parsing {} as {}"));
+            Assert.assertEquals(1, TestUtil.count(shared, "Evaluating module {}"));
+            Assert.assertEquals(
+                1, v.getMember("left").getMember("a").getMember("a").asInt());
+            Assert.assertEquals(
+                1, v.getMember("right").getMember("a").getMember("a").asInt());
+            Assert.assertEquals(3, v.getMember("right").getMember("sum").asInt());
+          } catch (IOException e) {
+            throw new RuntimeException(e);
+          }
+        });
+  }
+
+  @Test
+  public void testParsedSourcesShared() {
+    TestUtil.runWithStackTrace(
+        () -> {
+          try (Engine engine = Engine.create()) {
+            // not cached by the engine itself, so each evaluation asks the language to parse
+            Source s =
+                Source.newBuilder(
+                        JanivaLang.ID,
+                        Objects.requireNonNull(
+                            this.getClass()
+                                .getClassLoader()
+                                .getResource("io/ut-parse-cache.janiva")))
+                    .cached(false)
+                    .build();
+            for (int i = 0; i < 2; i++) {
+              try (Context c =
+                  Context.newBuilder(JanivaLang.ID).engine(engine).allowAllAccess(true).build()) {
+                Value[] result = new Value[1];
+                List<ILoggingEvent> events = TestUtil.captureLogs(() -> result[0] = c.eval(s));
+                // the source and its import the first time, nothing the second time
+                Assert.assertEquals(i == 0 ? 2 : 0, TestUtil.count(events, "Parsing {} as {}"));
+                Value v = result[0];
+                Assert.assertEquals(3, v.getMember("sum").asInt());
+                Assert.assertEquals(1, v.getMember("lib").getMember("a").asInt());
+              }
+            }
+          } catch (IOException e) {
+            throw new RuntimeException(e);
+          }
+        });
+  }
+
+  @Test
+  public void testTemplateCache() throws IOException {
+    Path dir = Files.createTempDirectory("janiva-templates");
+    // stamped after the first run, an entry written again would carry a new time
+    FileTime stamp = FileTime.fromMillis(0);
+    try {
+      TestUtil.runWithStackTrace(
+          () -> {
+            try {
+              // a new engine each time, so the second run replays what the first one stored
+              for (int i = 0; i < 2; i++) {
+                Source s =
+                    Source.newBuilder(
+                            JanivaLang.ID,
+                            Objects.requireNonNull(
+                                this.getClass()
+                                    .getClassLoader()
+                                    .getResource("io/ut-template-cache.janiva")))
+                        .build();
+                try (Context c =
+                    Context.newBuilder(JanivaLang.ID)
+                        .option("janiva.TemplateCache", dir.toString())
+                        .allowAllAccess(true)
+                        .build()) {
+                  Value v = c.eval(s);
+                  Assert.assertEquals(3, v.getMember("sum").asInt());
+                  Assert.assertEquals(6, v.getMember("twice").asInt());
+                  Assert.assertEquals("two", v.getMember("items").getArrayElement(1).asString());
+                  Assert.assertEquals(1, v.getMember("lib").getMember("a").asInt());
+                }
+                try (Stream<Path> entries = Files.list(dir)) {
+                  List<Path> files = entries.collect(Collectors.toList());
+                  // the evaluated source and its import
+                  Assert.assertEquals(2, files.size());
+                  for (Path file : files) {
+                    if (i == 0) {
+                      Files.setLastModifiedTime(file, stamp);
+                    } else {
+                      // replayed, not parsed and stored again
+                      Assert.assertEquals(stamp, Files.getLastModifiedTime(file));
+                    }
+                  }
+                }
+              }
+            } catch (IOException e) {
+              throw new RuntimeException(e);
+            }
+          });
+    } finally {
+      deleteRecursively(dir);
+    }
+  }
+
+  @Test
+  public void testTemplateCacheOptionPerContext() throws IOException {
+    Path dir = Files.createTempDirectory("janiva-templates");
+    try (Engine engine = Engine.create()) {
+      Source s =
+          Source.newBuilder(
+                  JanivaLang.ID,
+                  Objects.requireNonNull(
+                      this.getClass().getClassLoader().getResource("io/ut-template-cache.janiva")))
+              .cached(false)
+              .build();
+      try (Context c =
+          Context.newBuilder(JanivaLang.ID).engine(engine).allowAllAccess(true).build()) {
+        Assert.assertEquals(3, c.eval(s).getMember("sum").asInt());
+      }
+      // same engine, but the cache is only set now
+      try (Context c =
+          Context.newBuilder(JanivaLang.ID)
+              .engine(engine)
+              .option("janiva.TemplateCache", dir.toString())
+              .allowAllAccess(true)
+              .build()) {
+        Assert.assertEquals(3, c.eval(s).getMember("sum").asInt());
+      }
+      try (Stream<Path> entries = Files.list(dir)) {
+        Assert.assertEquals(2, entries.count());
+      }
+    } finally {
+      deleteRecursively(dir);
+    }
+  }
+
+  private static void deleteRecursively(Path dir) throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+
+  @Test
+  public void testIncrementalParsing() {
+    String v0 =
+        String.join(
+            "\n",
+            "@namespace << ut.incremental #",
+            "@inc :: (x) >> $x + 1 #",
+            "@both :: (x) >> [$x, $x] #",
+            "{",
+            "  n << 2,",
+            "  \"a\": @inc << $n,",
+            "  \"b\": [1, 2, 3],",
+            "  \"c\": {\"d\": \"e\"},",
+            "  \"e\": @both << [1, 2]",
+            "}");
+    // within a literal
+    String v1 = v0.replace("[1, 2, 3]", "[1, 2, 3, 4]");
+    // within the root value, whose lambdas are not defined again
+    String v2 = v1.replace("n << 2", "n << 5");
+    String v3 = v2.replace("\"e\"}", "\"f\"}");
+    // within a literal the inlined @both copies
+    String v4 = v3.replace("@both << [1, 2]", "@both << [1, 2, 3]");
+    try (Context c =
+        Context.newBuilder(JanivaLang.ID)
+            .allowExperimentalOptions(true)
+            .option("janiva.IncrementalParsing", "true")
+            .build()) {
+      Value[] v = new Value[5];
+      List<ILoggingEvent> events =
+          TestUtil.captureLogs(
+              () -> {
+                String[] versions = {v0, v1, v2, v3, v4};
+                for (int i = 0; i < versions.length; i++) {
+                  v[i] =
+                      c.eval(
+                          Source.newBuilder(JanivaLang.ID, versions[i], "edited.janiva")
+                              .buildLiteral());
+                }
+              });
+      Assert.assertEquals(1, TestUtil.count(events, "Parsed {} in full"));
+      Assert.assertEquals(2, TestUtil.count(events, "Reparsed a JSON literal of {}"));
+      Assert.assertEquals(2, TestUtil.count(events, "Reparsed the root value of {}"));
+
+      Assert.assertEquals(3, v[0].getMember("a").asInt());
+      Assert.assertEquals(3, v[0].getMember("b").getArraySize());
+      Assert.assertEquals(4, v[1].getMember("b").getArraySize());
+      Assert.assertEquals(6, v[2].getMember("a").asInt());
+      Assert.assertEquals("e", v[2].getMember("c").getMember("d").asString());
+      Assert.assertEquals("f", v[3].getMember("c").getMember("d").asString());
+      Assert.assertEquals(4, v[3].getMember("b").getArraySize());
+      Assert.assertEquals(6, v[3].getMember("a").asInt());
+      Assert.assertEquals(3, v[4].getMember("e").getArrayElement(0).getArraySize());
+      Assert.assertEquals(3, v[4].getMember("e").getArrayElement(1).getArraySize());
+
+      try {
+        c.eval(
+            Source.newBuilder(JanivaLang.ID, v4.replace("[1, 2, 3, 4]", "[1, 2,, 4]"), "edited.janiva")
+                .buildLiteral());
+        Assert.fail("Expected a syntax error");
+      } catch (PolyglotException e) {
+        // reported where it is, though only the root value was parsed
+        Assert.assertTrue(e.isSyntaxError());
+        Assert.assertTrue(e.getMessage(), e.getMessage().contains("line 7"));
+      }
+    }
+  }
 }
@@ -1,6 +1,9 @@
 package com.oracle.truffle.jx.test;
 
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.jx.JanivaLang;
+import com.oracle.truffle.jx.runtime.view.JXLazyArrayView;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Value;
 import org.junit.After;
@@ -75,6 +78,119 @@ public class LambdaTest {
         });
   }
 
+  @Test
+  public void testInlining() {
+    TestUtil.runWithStackTrace(
+        () -> {
+          String src = TestUtil.readResourceAsString("lambda/ut-inline.janiva");
+          Value v = context.eval(JanivaLang.ID, src);
+          Assert.assertEquals(5, v.getMember("doubled").asInt());
+          Assert.assertEquals(9, v.getMember("squared").asInt());
+          Assert.assertEquals(16, v.getMember("squared_expr").asInt());
+          Value pairs = v.getMember("pairs");
+          Assert.assertEquals(3, pairs.getArrayElement(0).getMember("second").asInt());
+          Assert.assertEquals(4, pairs.getArrayElement(0).getMember("sum").asInt());
+          Assert.assertEquals(7, pairs.getArrayElement(1).getMember("sum").asInt());
+          Assert.assertFalse(pairs.getArrayElement(1).hasMember("s"));
+        });
+  }
+
+  @Test
+  public void testLazyBodies() {
+    TestUtil.runWithStackTrace(
+        () -> {
+          String src = TestUtil.readResourceAsString("lambda/ut-lazy-body.janiva");
+          Value v = context.eval(JanivaLang.ID, src);
+          Assert.assertEquals(40, v.getMember("v").asInt());
+        });
+  }
+
+  @Test
+  public void testLazyBodySkip() {
+    TestUtil.runWithStackTrace(
+        () -> {
+          String src = TestUtil.readResourceAsString("lambda/ut-lazy-body-skip.janiva");
+          Value t = context.eval(JanivaLang.ID, src).getMember("t");
+          Assert.assertEquals("#x", t.getMember("label").asString());
+          Value items = t.getMember("items");
+          Assert.assertEquals(3, items.getArrayElement(1).asInt());
+          Assert.assertEquals(
+              4, items.getArrayElement(2).getMember("nested").getArrayElement(0).asInt());
+        });
+  }
+
+  @Test
+  public void testHigherOrderBuiltIns() {
+    TestUtil.runWithStackTrace(
+        () -> {
+          String src = TestUtil.readResourceAsString("lambda/ut-higher-order.janiva");
+          Value v = context.eval(JanivaLang.ID, src);
+          Value mapped = v.getMember("mapped");
+          Assert.assertEquals(3, mapped.getArraySize());
+          Assert.assertEquals(6, mapped.getArrayElement(2).asInt());
+          Value filtered = v.getMember("filtered");
+          Assert.assertEquals(3, filtered.getArraySize());
+          Assert.assertEquals(2, filtered.getArrayElement(2).asInt());
+          Assert.assertEquals(10, v.getMember("sum").asInt());
+          Assert.assertEquals(6, v.getMember("folded").asInt());
+          Value flat = v.getMember("flat");
+          Assert.assertEquals(4, flat.getArraySize());
+          Assert.assertEquals(2, flat.getArrayElement(3).asInt());
+        });
+  }
+
+  @Test
+  public void testLazyPipelineViews() {
+    TestUtil.runWithStackTrace(
+        () -> {
+          String src = TestUtil.readResourceAsString("lambda/ut-lazy-pipeline.janiva");
+          Value v = context.eval(JanivaLang.ID, src);
+          Value taken = v.getMember("taken");
+          Assert.assertEquals(3, taken.getArraySize());
+          Assert.assertEquals(16, taken.getArrayElement(0).asInt());
+          Assert.assertEquals(36, taken.getArrayElement(2).asInt());
+          Value sliced = v.getMember("sliced");
+          Assert.assertEquals(2, sliced.getArraySize());
+          Assert.assertEquals(2, sliced.getArrayElement(0).asInt());
+          Value zipped = v.getMember("zipped");
+          Assert.assertEquals(2, zipped.getArraySize());
+          Assert.assertEquals(2, zipped.getArrayElement(1).getArrayElement(0).asInt());
+          Assert.assertEquals(1, zipped.getArrayElement(1).getArrayElement(1).asInt());
+          Value chunks = v.getMember("chunks");
+          Assert.assertEquals(3, chunks.getArraySize());
+          Assert.assertEquals(1, chunks.getArrayElement(2).getArraySize());
+        });
+  }
+
+  @Test
+  public void testLazyViewComputesOnce() throws InteropException {
+    int[] computed = new int[1];
+    JXLazyArrayView view =
+        new JXLazyArrayView() {
+          @Override
+          protected long computeSize() {
+            return 20;
+          }
+
+          @Override
+          protected Object computeElement(long index) {
+            computed[0]++;
+            return index;
+          }
+        };
+    InteropLibrary interop = InteropLibrary.getUncached();
+    // read ahead, then back, then everything twice as serialization does
+    Assert.assertEquals(5L, interop.readArrayElement(view, 5));
+    Assert.assertEquals(6, computed[0]);
+    Assert.assertEquals(2L, interop.readArrayElement(view, 2));
+    for (int pass = 0; pass < 2; pass++) {
+      for (long i = 0; i < interop.getArraySize(view); i++) {
+        Assert.assertEquals(i, interop.readArrayElement(view, i));
+      }
+    }
+    Assert.assertEquals(20, computed[0]);
+  }
+
   @Test
   public void testRecursion() {
     TestUtil.runWithStackTrace(
@@ -84,4 +200,17 @@ public class LambdaTest {
           Assert.assertEquals(3, v.getMember("message").asInt());
         });
   }
+
+  @Test
+  public void testParameterResolution() {
+    TestUtil.runWithStackTrace(
+        () -> {
+          String src = TestUtil.readResourceAsString("lambda/ut-lambda-params.janiva");
+          Value d = context.eval(JanivaLang.ID, src).getMember("d");
+          // attributes bound in the body shadow parameters of the same name
+          Assert.assertEquals(4, d.getMember("sum").asInt());
+          Assert.assertEquals(2, d.getMember("shadowed").asInt());
+          Assert.assertEquals(2, d.getMember("y").asInt());
+        });
+  }
 }
@@ -1,7 +1,11 @@
 package com.oracle.truffle.jx.test;
 
+import ch.qos.logback.classic.spi.ILoggingEvent;
 import com.oracle.truffle.jx.JanivaLang;
+import java.util.List;
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 import org.junit.After;
 import org.junit.Assert;
@@ -117,6 +121,44 @@ public class ObjectTest {
         });
   }
 
+  @Test
+  public void testLatentByNeed() {
+    TestUtil.runWithStackTrace(
+        () -> {
+          String src = TestUtil.readResourceAsString("ut-latent-by-need.janiva");
+          Value v = context.eval(JanivaLang.ID, src);
+          Assert.assertEquals(4, v.getMember("untaken").asInt());
+          Assert.assertEquals(4, v.getMember("again").asInt());
+          Assert.assertFalse(v.hasMember("lazy"));
+        });
+  }
+
+  @Test
+  public void testCommonSubexpressions() {
+    TestUtil.runWithStackTrace(
+        () -> {
+          String src = TestUtil.readResourceAsString("object/ut-cse.janiva");
+          Value[] result = new Value[1];
+          List<ILoggingEvent> events =
+              TestUtil.captureLogs(() -> result[0] = context.eval(JanivaLang.ID, src));
+          Value v = result[0];
+          // both the concatenation and the call are built once, and read twice
+          int removed =
+              events.stream()
+                  .filter(e -> e.getMessage().startsWith("Common subexpression elimination"))
+                  .mapToInt(e -> (Integer) e.getArgumentArray()[0])
+                  .sum();
+          Assert.assertTrue("nothing was shared: " + removed, removed > 0);
+          Assert.assertEquals("https://example.com/api", v.getMember("url").asString());
+          Assert.assertEquals("https://example.com/api/health", v.getMember("health").asString());
+          Assert.assertEquals("prod.region", v.getMember("region").asString());
+          Assert.assertEquals("prod.region", v.getMember("zone").asString());
+          // not shared, x is rebound in between
+          Assert.assertEquals(2, v.getMember("a").asInt());
+          Assert.assertEquals(3, v.getMember("b").asInt());
+        });
+  }
+
   @Test
   public void testAttrAccess() {
     logger.debug("start attribute accessing test");
@@ -127,4 +169,61 @@ public class ObjectTest {
         Assert.assertEquals("bar", v.getMember("result_2").asString());
     });
   }
+
+  @Test
+  public void testFrozenLiteral() {
+    TestUtil.runWithStackTrace(
+        () -> {
+          String src = TestUtil.readResourceAsString("object/ut-frozen-literal.janiva");
+          Value program = context.parse(Source.create(JanivaLang.ID, src));
+          Value v = program.execute();
+          Assert.assertArrayEquals(new int[] {1, 2, 3}, v.getMember("ints").as(int[].class));
+          Value mixed = v.getMember("mixed");
+          Assert.assertEquals("a", mixed.getArrayElement(1).asString());
+          Assert.assertEquals(2.5, mixed.getArrayElement(3).asDouble(), 0.001);
+          Value nested = v.getMember("nested");
+          Assert.assertFalse(nested.getMember("flags").getArrayElement(1).asBoolean());
+          Assert.assertEquals("d", nested.getMember("inner").getMember("c").asString());
+          // literals of constants are evaluated once and shared
+          Assert.assertEquals(v, program.execute());
+          try {
+            nested.putMember("x", 1);
+            Assert.fail("frozen object must not be modified");
+          } catch (UnsupportedOperationException expected) {
+          }
+        });
+  }
+
+  @Test
+  public void testJsonScan() {
+    TestUtil.runWithStackTrace(
+        () -> {
+          String src = TestUtil.readResourceAsString("object/ut-json-scan.janiva");
+          Value v = context.eval(JanivaLang.ID, src);
+          Value config = v.getMember("config");
+          Assert.assertEquals("service", config.getMember("name").asString());
+          Assert.assertArrayEquals(new int[] {8080, 8443}, config.getMember("ports").as(int[].class));
+          Assert.assertEquals(0.5, config.getMember("limits").getMember("cpu").asDouble(), 0.001);
+          Assert.assertEquals("b", config.getMember("tags").getArrayElement(1).asString());
+          Value mixed = v.getMember("mixed");
+          Assert.assertTrue(mixed.getArrayElement(0).getMember("ok").asBoolean());
+          Assert.assertEquals(2, mixed.getArrayElement(1).getMember("id").asInt());
+          Value deep = mixed.getArrayElement(2);
+          Assert.assertEquals(2, deep.getArrayElement(0).getMember("deep").getArrayElement(1).asInt());
+          Assert.assertEquals(2, deep.getArrayElement(1).asInt());
+        });
+  }
+
+  @Test
+  public void testJsonScanLocations() {
+    // the error follows a literal scanned in one go, and is still reported where it is
+    String src = "{\n  \"a\": {\"b\": [1,\n 2]},\n  \"c\": 01\n}";
+    try {
+      context.eval(JanivaLang.ID, src);
+      Assert.fail("expected a syntax error");
+    } catch (PolyglotException e) {
+      Assert.assertTrue(e.isSyntaxError());
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains("line 4"));
+    }
+  }
 }
@@ -43,7 +43,10 @@ package com.oracle.truffle.jx.test;
 import static org.junit.Assert.assertTrue;
 
 import com.oracle.truffle.jx.JanivaLang;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
 import org.graalvm.polyglot.Value;
 import org.junit.After;
 import org.junit.Assert;
@@ -76,12 +79,81 @@ public class PrimitiveTest {
         });
   }
 
+  @Test
+  public void testTrailingZeros() {
+    // kept as written rather than as the double 1.5
+    Value v = context.eval(JanivaLang.ID, "1.50");
+    Assert.assertEquals("1.50", v.toString());
+    Assert.assertEquals(1.5, v.asDouble(), 0.001);
+  }
+
+  @Test
+  public void testDecimalScale() {
+    // the scales BigDecimal gives, whether or not the operands are doubles
+    Assert.assertEquals("3.00", context.eval(JanivaLang.ID, "1.5 * 2.0").toString());
+    Assert.assertEquals("3.00", context.eval(JanivaLang.ID, "1.25 + 1.75").toString());
+    Assert.assertEquals("0.00", context.eval(JanivaLang.ID, "1.25 - 1.25").toString());
+    Assert.assertEquals("2", context.eval(JanivaLang.ID, "3.0 / 1.5").toString());
+    Assert.assertEquals("0.25", context.eval(JanivaLang.ID, "0.5 * 0.5").toString());
+    Assert.assertEquals("3.0", context.eval(JanivaLang.ID, "1.5 + 1.5").toString());
+    Assert.assertEquals("0.75", context.eval(JanivaLang.ID, "1.5 / 2.0").toString());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (Context c = Context.newBuilder(JanivaLang.ID).out(out).build()) {
+      c.eval(JanivaLang.ID, "@stdout << [1.5 * 2.0, 1.5 + 1.5, 3.0]");
+    }
+    Assert.assertEquals(
+        "[ 3.00, 3.0, 3.0 ]", new String(out.toByteArray(), StandardCharsets.UTF_8).trim());
+  }
+
   @Test
   public void testString() {
     Value v = context.eval(JanivaLang.ID, "\"asd\"");
     Assert.assertEquals("asd", v.asString());
   }
 
+  @Test
+  public void testSupplementaryCharacters() {
+    // surrogate pairs take two chars, literals after them must still be found where they are
+    Value v = context.eval(JanivaLang.ID, "{\"\uD83D\uDE00\": \"a\uD83D\uDE00b\", \"c\": \"d\"}");
+    Assert.assertEquals("a\uD83D\uDE00b", v.getMember("\uD83D\uDE00").asString());
+    Assert.assertEquals("d", v.getMember("c").asString());
+  }
+
+  @Test
+  public void testSyntaxError() {
+    try {
+      context.eval(JanivaLang.ID, "{\"a\": 1,\n \"b\": }");
+      Assert.fail("Expected a syntax error");
+    } catch (PolyglotException e) {
+      assertTrue(e.isSyntaxError());
+      assertTrue(e.getMessage(), e.getMessage().contains("line 2"));
+    }
+  }
+
+  @Test
+  public void testTwoStageParsing() {
+    try (Context twoStage =
+        Context.newBuilder(JanivaLang.ID)
+            .allowExperimentalOptions(true)
+            .option("janiva.TwoStageParsing", "true")
+            .build()) {
+      // SLL prediction gives up on arithmetic, which the LL stage then parses from scratch
+      Assert.assertEquals(
+          3, twoStage.eval(JanivaLang.ID, "{ \"a\": 1 + 2 }").getMember("a").asInt());
+      Assert.assertEquals(
+          3, twoStage.eval(JanivaLang.ID, "{ n << 1, \"a\": $n + 2 }").getMember("a").asInt());
+      // the SLL stage bails out silently, the error is reported by the LL stage
+      try {
+        twoStage.eval(JanivaLang.ID, "{\"a\": 1,\n \"b\": }");
+        Assert.fail("Expected a syntax error");
+      } catch (PolyglotException e) {
+        assertTrue(e.isSyntaxError());
+        assertTrue(e.getMessage(), e.getMessage().contains("line 2"));
+      }
+    }
+  }
+
   @Test
   public void testArithmetic() {
     TestUtil.runWithStackTrace(
@@ -111,4 +183,32 @@ public class PrimitiveTest {
           Assert.assertFalse(v.asBoolean());
         });
   }
+
+  @Test
+  public void testConstantFolding() {
+    TestUtil.runWithStackTrace(
+        () -> {
+          String src = TestUtil.readResourceAsString("ut-constant-folding.janiva");
+          Value v = context.eval(JanivaLang.ID, src);
+          Assert.assertEquals(7, v.getMember("sum").asInt());
+          Assert.assertEquals(18, v.getMember("nested").asInt());
+          Assert.assertEquals("a1", v.getMember("concat").asString());
+          Assert.assertEquals("yes", v.getMember("compare").asString());
+          Assert.assertEquals(2, v.getMember("literal").asInt());
+        });
+  }
+
+  @Test
+  public void testTypedSlots() {
+    TestUtil.runWithStackTrace(
+        () -> {
+          String src = TestUtil.readResourceAsString("ut-typed-slots.janiva");
+          Value v = context.eval(JanivaLang.ID, src);
+          Assert.assertEquals(5, v.getMember("sum").asInt());
+          Assert.assertEquals(10, v.getMember("twice").asInt());
+          Assert.assertEquals(3.0, v.getMember("scaled").asDouble(), 0.001);
+          assertTrue(v.getMember("flag").asBoolean());
+          Assert.assertEquals("2a", v.getMember("mixed").asString());
+        });
+  }
 }
@@ -1,8 +1,14 @@
 package com.oracle.truffle.jx.test;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 import org.graalvm.polyglot.Value;
+import org.slf4j.LoggerFactory;
 
 public class TestUtil {
   public static void runWithStackTrace(Runnable r) {
@@ -23,6 +29,28 @@ public class TestUtil {
     }
   }
 
+  /** Runs {@code r} and returns what the language logged meanwhile, debug messages included */
+  public static List<ILoggingEvent> captureLogs(Runnable r) {
+    Logger logger = (Logger) LoggerFactory.getLogger("com.oracle.truffle.jx");
+    Level level = logger.getLevel();
+    ListAppender<ILoggingEvent> events = new ListAppender<>();
+    events.start();
+    logger.setLevel(Level.DEBUG);
+    logger.addAppender(events);
+    try {
+      r.run();
+    } finally {
+      logger.detachAppender(events);
+      logger.setLevel(level);
+    }
+    return events.list;
+  }
+
+  /** @return number of {@code events} with the message {@code message} */
+  public static long count(List<ILoggingEvent> events, String message) {
+    return events.stream().filter(e -> e.getMessage().equals(message)).count();
+  }
+
   /**
    * Recursively evaluate a value until it is not executable any more
    *